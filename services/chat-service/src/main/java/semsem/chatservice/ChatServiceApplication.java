@@ -5,11 +5,13 @@ import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.cloud.client.discovery.EnableDiscoveryClient;
 import org.springframework.cloud.openfeign.EnableFeignClients;
 import org.springframework.context.annotation.ComponentScan;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
 @EnableFeignClients(basePackages = {"semsem.chatservice.client", "com.app.shared.security.client"})
 @ComponentScan(basePackages = {"semsem.chatservice", "com.app.shared.security.filter", "com.app.shared.security.client"})
 @EnableDiscoveryClient
+@EnableScheduling
 public class ChatServiceApplication {
 
     public static void main(String[] args) {
@@ -0,0 +1,119 @@
+package semsem.chatservice.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import semsem.chatservice.client.MainServiceClient;
+import semsem.chatservice.enums.FriendshipActionType;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * On-heap cache of each user's friend ids, loaded from main-service's internal friendship API.
+ * Friends are held as a sorted primitive {@code long[]} (8 bytes per friend, binary-searchable).
+ * Cached lists are patched from main-service's friendship events; the TTL bounds how stale a list
+ * can get if an event is missed. Returned arrays are shared and must not be modified by callers.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class FriendIdsCache {
+
+    private static final long[] NO_FRIENDS = new long[0];
+
+    private final MainServiceClient mainServiceClient;
+
+    @Value("${chat.friends-cache.max-friend-ids:5000000}")
+    private long maxFriendIds;
+
+    @Value("${chat.friends-cache.ttl:10m}")
+    private Duration ttl;
+
+    private Cache<Long, long[]> friendIds;
+
+    @PostConstruct
+    void init() {
+        friendIds = Caffeine.newBuilder()
+                .maximumWeight(maxFriendIds)
+                .weigher((Long userId, long[] ids) -> Math.max(1, ids.length))
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    /**
+     * Friend ids of the user; an empty array (not cached) when main-service cannot be reached
+     */
+    public long[] getFriendIds(Long userId) {
+        try {
+            return friendIds.get(userId, this::load);
+        } catch (Exception e) {
+            log.error("Error loading friend ids for userId={}: {}", userId, e.getMessage());
+            return NO_FRIENDS;
+        }
+    }
+
+    public boolean areFriends(Long userId, Long otherUserId) {
+        return Arrays.binarySearch(getFriendIds(userId), otherUserId) >= 0;
+    }
+
+    public void applyFriendshipChange(Long userId1, Long userId2, FriendshipActionType actionType) {
+        if (actionType == FriendshipActionType.ACCEPTED) {
+            addFriendship(userId1, userId2);
+        } else {
+            removeFriendship(userId1, userId2);
+        }
+    }
+
+    /** Applies an accepted friendship to both users' cached lists, if they are cached. */
+    public void addFriendship(Long userId1, Long userId2) {
+        friendIds.asMap().computeIfPresent(userId1, (userId, ids) -> insert(ids, userId2));
+        friendIds.asMap().computeIfPresent(userId2, (userId, ids) -> insert(ids, userId1));
+    }
+
+    /** Applies a removed or blocked friendship to both users' cached lists, if they are cached. */
+    public void removeFriendship(Long userId1, Long userId2) {
+        friendIds.asMap().computeIfPresent(userId1, (userId, ids) -> remove(ids, userId2));
+        friendIds.asMap().computeIfPresent(userId2, (userId, ids) -> remove(ids, userId1));
+    }
+
+    private long[] load(Long userId) {
+        List<Long> ids = mainServiceClient.getFriendIds(userId);
+        if (ids == null || ids.isEmpty()) {
+            return NO_FRIENDS;
+        }
+        long[] sorted = ids.stream().mapToLong(Long::longValue).sorted().distinct().toArray();
+        log.debug("Loaded {} friend ids for userId={}", sorted.length, userId);
+        return sorted;
+    }
+
+    // copy-on-write so readers holding the previous array never see it change
+    private static long[] insert(long[] ids, long friendId) {
+        int index = Arrays.binarySearch(ids, friendId);
+        if (index >= 0) {
+            return ids;
+        }
+        int insertAt = -index - 1;
+        long[] updated = new long[ids.length + 1];
+        System.arraycopy(ids, 0, updated, 0, insertAt);
+        updated[insertAt] = friendId;
+        System.arraycopy(ids, insertAt, updated, insertAt + 1, ids.length - insertAt);
+        return updated;
+    }
+
+    private static long[] remove(long[] ids, long friendId) {
+        int index = Arrays.binarySearch(ids, friendId);
+        if (index < 0) {
+            return ids;
+        }
+        long[] updated = new long[ids.length - 1];
+        System.arraycopy(ids, 0, updated, 0, index);
+        System.arraycopy(ids, index + 1, updated, index, ids.length - index - 1);
+        return updated;
+    }
+}
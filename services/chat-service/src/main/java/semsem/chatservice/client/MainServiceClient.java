@@ -4,11 +4,14 @@ import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.data.domain.Page;
 import org.springframework.stereotype.Component;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestParam;
 import semsem.chatservice.dto.response.AppUserForChatDto;
 import com.app.shared.security.dto.MyApiResponse;
 
+import java.util.List;
+
 @Component
 @FeignClient(name = "main-service", url = "${main-service.url}")
 public interface MainServiceClient {
@@ -19,6 +22,9 @@ public interface MainServiceClient {
             @RequestParam(defaultValue = "20") int size
     );
 
+    @GetMapping("/internal/api/friendships/{userId}/friend-ids")
+    List<Long> getFriendIds(@PathVariable("userId") Long userId);
+
     @GetMapping("/api/v1/friendship/are-friends")
     MyApiResponse<Boolean> areFriends(
             @RequestHeader("Authorization") String token,
@@ -21,6 +21,9 @@ public class KafkaConsumerConfig {
     @Value("${spring.kafka.bootstrap-servers}")
     private String bootstrapServers;
 
+    @Value("${chat.persistence.max-poll-records:500}")
+    private int persistenceMaxPollRecords;
+
     @Bean
     public ConsumerFactory<String, ChatMessageEvent> chatMessageConsumerFactory() {
         JsonDeserializer<ChatMessageEvent> deserializer = new JsonDeserializer<>(ChatMessageEvent.class, false);
@@ -45,4 +48,43 @@ public class KafkaConsumerConfig {
         factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL_IMMEDIATE);
         return factory;
     }
-}
\ No newline at end of file
+
+    /**
+     * Batch variant used by the persistence consumer: the listener receives a whole poll
+     * and commits its offsets once, after every record in it has been written.
+     */
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, ChatMessageEvent> chatMessageBatchListenerContainerFactory() {
+        ConcurrentKafkaListenerContainerFactory<String, ChatMessageEvent> factory =
+                new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(chatMessageConsumerFactory());
+        factory.setBatchListener(true);
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL);
+        factory.getContainerProperties().getKafkaConsumerProperties()
+                .setProperty(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, String.valueOf(persistenceMaxPollRecords));
+        return factory;
+    }
+
+    /**
+     * Plain-string consumers for events published by other services (parsed by the listener),
+     * so their producers' type headers never have to match classes in this service.
+     */
+    @Bean
+    public ConsumerFactory<String, String> stringConsumerFactory() {
+        Map<String, Object> props = new HashMap<>();
+        props.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        props.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+        props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+        props.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+
+        return new DefaultKafkaConsumerFactory<>(props);
+    }
+
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, String> stringKafkaListenerContainerFactory() {
+        ConcurrentKafkaListenerContainerFactory<String, String> factory =
+                new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(stringConsumerFactory());
+        return factory;
+    }
+}
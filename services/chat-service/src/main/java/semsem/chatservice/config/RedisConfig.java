@@ -1,5 +1,9 @@
 package semsem.chatservice.config;
 
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.context.annotation.Bean;
@@ -8,8 +12,15 @@ import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
 import org.springframework.data.redis.connection.jedis.JedisConnectionFactory;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.Jackson2JsonRedisSerializer;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
+import semsem.chatservice.listener.InstanceDeliveryListener;
+import semsem.chatservice.listener.PresenceBroadcastListener;
+import semsem.chatservice.model.ChatMessage;
+import semsem.chatservice.service.MessageDeliveryService;
 
 @Configuration
 @EnableCaching
@@ -24,6 +35,9 @@ public class RedisConfig {
     @Value("${spring.data.redis.password}")
     private String redisPassword;
 
+    @Value("${chat.instance-id:default-instance}")
+    private String instanceId;
+
     @Bean
     public JedisConnectionFactory jedisConnectionFactory() {
         RedisStandaloneConfiguration config = new RedisStandaloneConfiguration();
@@ -53,4 +67,41 @@ public class RedisConfig {
         template.afterPropertiesSet();
         return template;
     }
-}
\ No newline at end of file
+
+    /**
+     * Template for the per-conversation recent-message ring.
+     * Values are Smile-encoded without class metadata, which keeps each entry a fraction of
+     * the size of the polymorphic JSON written by {@link GenericJackson2JsonRedisSerializer}.
+     */
+    @Bean
+    public RedisTemplate<String, ChatMessage> chatMessageRingTemplate(RedisConnectionFactory connectionFactory) {
+        ObjectMapper smileMapper = new ObjectMapper(new SmileFactory())
+                .registerModule(new JavaTimeModule())
+                .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+        RedisTemplate<String, ChatMessage> template = new RedisTemplate<>();
+        template.setConnectionFactory(connectionFactory);
+        template.setKeySerializer(new StringRedisSerializer());
+        template.setValueSerializer(new Jackson2JsonRedisSerializer<>(smileMapper, ChatMessage.class));
+        template.afterPropertiesSet();
+        return template;
+    }
+
+    /**
+     * Subscribes this instance to its own delivery channel so other nodes can hand it
+     * messages for users whose WebSocket is connected here, and to the shared presence channel.
+     */
+    @Bean
+    public RedisMessageListenerContainer redisMessageListenerContainer(RedisConnectionFactory connectionFactory,
+                                                                       InstanceDeliveryListener instanceDeliveryListener,
+                                                                       PresenceBroadcastListener presenceBroadcastListener,
+                                                                       MessageDeliveryService messageDeliveryService) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(instanceDeliveryListener,
+                new ChannelTopic(messageDeliveryService.deliveryChannelFor(instanceId)));
+        container.addMessageListener(presenceBroadcastListener,
+                new ChannelTopic(PresenceBroadcastListener.PRESENCE_CHANNEL));
+        return container;
+    }
+}
@@ -1,44 +1,183 @@
 package semsem.chatservice.consumer;
 
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.kafka.support.Acknowledgment;
 import org.springframework.stereotype.Component;
 import semsem.chatservice.event.ChatMessageEvent;
 import semsem.chatservice.mapper.ChatMessageEventMapper;
-import semsem.chatservice.repository.ConversationMessageRepository;
+import semsem.chatservice.model.ConversationMessage;
+import semsem.chatservice.repository.ConversationMessageBatchWriter;
 import semsem.chatservice.repository.RedisChatMessageRepository;
+import semsem.chatservice.repository.UserConversationInboxWriter;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 
 @Component
-@RequiredArgsConstructor
 @Slf4j
 public class ChatMessagePersistenceConsumer {
 
-    private final ConversationMessageRepository conversationMessageRepository;
+    private static final int PREVIEW_LENGTH = 100;
+
+    private final ConversationMessageBatchWriter batchWriter;
+    private final UserConversationInboxWriter inboxWriter;
     private final RedisChatMessageRepository redisChatMessageRepository;
     private final ChatMessageEventMapper mapper;
+    private final Duration writeTimeout;
+    private final Duration retryBackoff;
+
+    public ChatMessagePersistenceConsumer(ConversationMessageBatchWriter batchWriter,
+                                          UserConversationInboxWriter inboxWriter,
+                                          RedisChatMessageRepository redisChatMessageRepository,
+                                          ChatMessageEventMapper mapper,
+                                          @Value("${chat.persistence.write-timeout:10s}") Duration writeTimeout,
+                                          @Value("${chat.persistence.retry-backoff:1s}") Duration retryBackoff) {
+        this.batchWriter = batchWriter;
+        this.inboxWriter = inboxWriter;
+        this.redisChatMessageRepository = redisChatMessageRepository;
+        this.mapper = mapper;
+        this.writeTimeout = writeTimeout;
+        this.retryBackoff = retryBackoff;
+    }
 
+    /**
+     * Persists one poll's worth of messages. Records are grouped by conversation (the Cassandra
+     * partition key) and every group is written concurrently as async unlogged batches, followed
+     * by one coalesced inbox update per participant. Read markers split a group into runs that are
+     * applied in record order, so a reset only covers the messages that came before it.
+     */
     @KafkaListener(
             topics = "chat-messages",
             groupId = "chat-persistence",
-            containerFactory = "kafkaListenerContainerFactory"
+            containerFactory = "chatMessageBatchListenerContainerFactory"
     )
-    public void persist(ChatMessageEvent event, Acknowledgment ack) {
-        log.debug("Persisting messageId={} for conversation={}", event.getMessageId(), event.getConversationId());
-        try {
-            conversationMessageRepository.save(mapper.toConversationMessage(event));
+    public void persist(List<ConsumerRecord<String, ChatMessageEvent>> records, Acknowledgment ack) {
+        log.debug("Persisting batch of {} chat messages", records.size());
+
+        Map<String, ConversationGroup> groups = new LinkedHashMap<>();
+        for (int index = 0; index < records.size(); index++) {
+            ConsumerRecord<String, ChatMessageEvent> record = records.get(index);
+            ChatMessageEvent event = record.value();
+            ConversationGroup group = groups.computeIfAbsent(event.getConversationId(), id -> new ConversationGroup());
+            if (event.isReadMarker()) {
+                group.addReadMarker(index, event, record.offset());
+            } else {
+                group.add(index, mapper.toConversationMessage(event), record.offset());
+            }
+        }
+
+        groups.forEach((conversationId, group) -> group.write = writeGroupAsync(conversationId, group));
+
+        int firstFailedIndex = records.size();
+        for (Map.Entry<String, ConversationGroup> entry : groups.entrySet()) {
+            ConversationGroup group = entry.getValue();
+            try {
+                group.write.get(writeTimeout.toMillis(), TimeUnit.MILLISECONDS);
+            } catch (Exception e) {
+                firstFailedIndex = Math.min(firstFailedIndex, group.firstIndex);
+                log.error("Failed to persist {} records for conversation={}: {}",
+                        group.size, entry.getKey(), e.getMessage(), e);
+            }
+        }
 
-            updateRecentMessageCache(event);
+        for (int index = 0; index < firstFailedIndex; index++) {
+            ChatMessageEvent event = records.get(index).value();
+            if (!event.isReadMarker()) {
+                updateRecentMessageCache(event);
+            }
+        }
 
-            // Commit offset only after successful write to Cassandra.
-            // If Cassandra crashes before this line, offset is NOT committed
-            // and Kafka will redeliver to the next consumer instance.
+        if (firstFailedIndex == records.size()) {
+            // Commit offsets only after every write in the poll succeeded.
             ack.acknowledge();
+            return;
+        }
 
+        // Commit everything before the first failed record and re-seek the rest; writes are
+        // idempotent, so records after it that were already stored are simply written again.
+        log.warn("Chat message batch partially failed — committing {} of {} records, redelivering the rest",
+                firstFailedIndex, records.size());
+        ack.nack(firstFailedIndex, retryBackoff);
+    }
+
+    private CompletableFuture<Void> writeGroupAsync(String conversationId, ConversationGroup group) {
+        CompletableFuture<Void> write = CompletableFuture.completedFuture(null);
+        for (GroupStep step : group.steps) {
+            write = step.messages != null
+                    ? write.thenCompose(ignored -> writeAsync(step.messages))
+                            .thenCompose(ignored -> updateInboxAsync(conversationId, step.messages, step.offsets))
+                    : write.thenCompose(ignored -> markReadAsync(conversationId, step.readMarker, step.offsets.get(0)));
+        }
+        return write;
+    }
+
+    private CompletableFuture<Void> markReadAsync(String conversationId, ChatMessageEvent readMarker, long offset) {
+        Long userId = parseUserId(readMarker.getSenderId());
+        if (userId == null) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return inboxWriter.markReadAsync(userId, conversationId, offset);
+    }
+
+    private CompletableFuture<Void> writeAsync(List<ConversationMessage> messages) {
+        try {
+            return batchWriter.saveConversationMessagesAsync(messages);
         } catch (Exception e) {
-            log.error("Failed to persist messageId={} — offset NOT committed, will retry: {}",
-                    event.getMessageId(), e.getMessage(), e);
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    /**
+     * Applies the whole run to each participant's inbox at once: the last message in partition order
+     * becomes the preview and every message the participant received counts towards their unread total.
+     */
+    private CompletableFuture<Void> updateInboxAsync(String conversationId, List<ConversationMessage> messages,
+                                                     List<Long> offsets) {
+        ConversationMessage last = messages.get(messages.size() - 1);
+        long lastOffset = offsets.get(offsets.size() - 1);
+        Map<Long, List<Long>> incomingByUser = new LinkedHashMap<>();
+
+        for (int i = 0; i < messages.size(); i++) {
+            ConversationMessage message = messages.get(i);
+            Long senderId = parseUserId(message.getSenderId());
+            Long receiverId = parseUserId(message.getReceiverId());
+            if (senderId != null) {
+                incomingByUser.computeIfAbsent(senderId, id -> new ArrayList<>());
+            }
+            if (receiverId != null) {
+                incomingByUser.computeIfAbsent(receiverId, id -> new ArrayList<>()).add(offsets.get(i));
+            }
+        }
+
+        String preview = last.getContent() != null && last.getContent().length() > PREVIEW_LENGTH
+                ? last.getContent().substring(0, PREVIEW_LENGTH)
+                : last.getContent();
+
+        List<CompletableFuture<Void>> updates = new ArrayList<>(incomingByUser.size());
+        for (Map.Entry<Long, List<Long>> entry : incomingByUser.entrySet()) {
+            updates.add(inboxWriter.applyAsync(entry.getKey(), conversationId, last.getConversationType(),
+                    last.getMessageId(), preview, lastOffset, entry.getValue()));
+        }
+        return CompletableFuture.allOf(updates.toArray(CompletableFuture[]::new));
+    }
+
+    private Long parseUserId(String userId) {
+        if (userId == null) {
+            return null;
+        }
+        try {
+            return Long.parseLong(userId);
+        } catch (NumberFormatException e) {
+            log.warn("Skipping inbox update for non-numeric userId={}", userId);
+            return null;
         }
     }
 
@@ -50,4 +189,51 @@ public class ChatMessagePersistenceConsumer {
             log.warn("Redis cache update skipped for messageId={}: {}", event.getMessageId(), e.getMessage());
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * A conversation's records in one poll: runs of messages separated by read markers, in record order
+     */
+    private static final class ConversationGroup {
+        private final List<GroupStep> steps = new ArrayList<>();
+        private int firstIndex = -1;
+        private int size;
+        private CompletableFuture<Void> write;
+
+        private void add(int index, ConversationMessage message, long offset) {
+            track(index);
+            GroupStep last = steps.isEmpty() ? null : steps.get(steps.size() - 1);
+            if (last == null || last.messages == null) {
+                last = new GroupStep(new ArrayList<>(), null);
+                steps.add(last);
+            }
+            last.messages.add(message);
+            last.offsets.add(offset);
+        }
+
+        private void addReadMarker(int index, ChatMessageEvent readMarker, long offset) {
+            track(index);
+            GroupStep step = new GroupStep(null, readMarker);
+            step.offsets.add(offset);
+            steps.add(step);
+        }
+
+        private void track(int index) {
+            if (firstIndex < 0) {
+                firstIndex = index;
+            }
+            size++;
+        }
+    }
+
+    private static final class GroupStep {
+        private final List<ConversationMessage> messages;
+        private final ChatMessageEvent readMarker;
+        // partition offsets of the step's records, in record order
+        private final List<Long> offsets = new ArrayList<>();
+
+        private GroupStep(List<ConversationMessage> messages, ChatMessageEvent readMarker) {
+            this.messages = messages;
+            this.readMarker = readMarker;
+        }
+    }
+}
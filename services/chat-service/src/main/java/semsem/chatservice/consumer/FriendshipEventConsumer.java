@@ -0,0 +1,36 @@
+package semsem.chatservice.consumer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+import semsem.chatservice.cache.FriendIdsCache;
+import semsem.chatservice.event.FriendshipEvent;
+
+/**
+ * Keeps this instance's friend id cache current with friendships accepted, removed or blocked in main-service.
+ * Every instance has its own group and only needs changes from now on: anything older is loaded fresh on a miss.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class FriendshipEventConsumer {
+
+    private final FriendIdsCache friendIdsCache;
+    private final ObjectMapper objectMapper;
+
+    @KafkaListener(topics = "friendship-events",
+            groupId = "chat-friend-ids-${chat.instance-id}",
+            containerFactory = "stringKafkaListenerContainerFactory",
+            properties = "auto.offset.reset=latest")
+    public void onFriendshipEvent(ConsumerRecord<String, String> record) {
+        try {
+            FriendshipEvent event = objectMapper.readValue(record.value(), FriendshipEvent.class);
+            friendIdsCache.applyFriendshipChange(event.getUserId1(), event.getUserId2(), event.getActionType());
+        } catch (Exception e) {
+            log.error("Failed to apply friendship event to friend id cache: {}", record.value(), e);
+        }
+    }
+}
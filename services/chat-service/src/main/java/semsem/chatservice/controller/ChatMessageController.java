@@ -1,8 +1,10 @@
 package semsem.chatservice.controller;
 
 
+import com.app.shared.security.utils.SecurityUtils;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.messaging.handler.annotation.MessageMapping;
 import org.springframework.messaging.handler.annotation.Payload;
@@ -10,18 +12,23 @@ import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.*;
+import semsem.chatservice.cache.FriendIdsCache;
 import semsem.chatservice.dto.request.NewPrivateChatMessageRequestDto;
 import semsem.chatservice.dto.request.NewPublicChatMessageRequestDto;
 import semsem.chatservice.dto.request.TypingEventRequestDto;
 import semsem.chatservice.dto.response.AppUserForChatDto;
 import semsem.chatservice.dto.response.ChatMessageResponseDto;
+import semsem.chatservice.dto.response.CursorPageResponse;
 import semsem.chatservice.repository.RedisOnlineUserRepository;
 import semsem.chatservice.security.WebSocketAuthenticationHelper;
 import semsem.chatservice.service.ChatMessageService;
 import semsem.chatservice.service.FriendsService;
+import semsem.chatservice.service.MessageDeliveryService;
+import semsem.chatservice.service.PresenceSubscriptionService;
 import org.springframework.data.domain.Page;
 
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 import java.util.stream.Collectors;
@@ -30,11 +37,17 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 @Slf4j
 public class ChatMessageController {
+    // upper bound of a session's presence watch list
+    private static final int MAX_WATCHED_USERS = 1000;
+
     private final SimpMessagingTemplate simpMessagingTemplate;
     private final ChatMessageService chatMessageService;
     private final WebSocketAuthenticationHelper webSocketAuthenticationHelper;
     private final FriendsService friendsService;
     private final RedisOnlineUserRepository redisOnlineUserRepository;
+    private final MessageDeliveryService messageDeliveryService;
+    private final PresenceSubscriptionService presenceSubscriptionService;
+    private final FriendIdsCache friendIdsCache;
 
     /**
      * Handle private messages between friends
@@ -68,8 +81,8 @@ public class ChatMessageController {
                     authenticatedUserId
             );
 
-            // Send to receiver
-            simpMessagingTemplate.convertAndSendToUser(
+            // Send to receiver, routed to whichever instance holds their connection
+            messageDeliveryService.deliverToUser(
                     msg.getReceiverId(),
                     "/queue/messages",
                     savedMessage
@@ -95,16 +108,24 @@ public class ChatMessageController {
     }
 
     /**
-     * REST endpoint to get conversation history between two users
-     * GET /api/messages/{senderId}/{receiverId}
+     * REST endpoint to get conversation history between two users, newest first
+     * GET /api/messages/{senderId}/{receiverId}?before={messageId}&size=50
+     * Only the two participants may read it
      */
     @GetMapping("/api/messages/{senderId}/{receiverId}")
-    public ResponseEntity<List<ChatMessageResponseDto>> getConversations(
+    public ResponseEntity<CursorPageResponse<ChatMessageResponseDto>> getConversations(
             @PathVariable("senderId") String senderId,
-            @PathVariable("receiverId") String receiverId
+            @PathVariable("receiverId") String receiverId,
+            @RequestParam(value = "before", required = false) Long before,
+            @RequestParam(value = "size", defaultValue = "50") int size
     ) {
-        log.info("Fetching conversation history between {} and {}", senderId, receiverId);
-        return ResponseEntity.ok(chatMessageService.getConversations(senderId, receiverId));
+        String currentUserId = String.valueOf(SecurityUtils.getCurrentUserId());
+        if (!currentUserId.equals(senderId) && !currentUserId.equals(receiverId)) {
+            log.warn("User {} attempted to read the conversation between {} and {}", currentUserId, senderId, receiverId);
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        log.info("Fetching conversation history between {} and {} before={}", senderId, receiverId, before);
+        return ResponseEntity.ok(chatMessageService.getConversations(senderId, receiverId, before, size));
     }
 
     /**
@@ -136,7 +157,10 @@ public class ChatMessageController {
     /**
      * WebSocket endpoint to check which friends are online
      * Endpoint: /app/friends.checkOnline
-     * Client sends list of friend IDs and receives back which ones are online
+     * Client sends list of friend IDs once and receives back which ones are online (one SMISMEMBER call).
+     * The list also becomes the session's watch list: later status changes of those friends arrive
+     * incrementally on /user/queue/online-friends-diff, so the client does not need to poll.
+     * Ids that are not friends of the caller are dropped, and at most MAX_WATCHED_USERS are kept.
      */
     @MessageMapping("/friends.checkOnline")
     public void checkOnlineFriends(
@@ -150,13 +174,19 @@ public class ChatMessageController {
             return;
         }
 
-        log.info("Checking online status for {} friends for userId: {}", friendIds.size(), authenticatedUserId);
         try {
+            List<String> watchedIds = friendsOnly(authenticatedUserId, friendIds);
+            log.info("Checking online status for {} of {} requested friends for userId: {}",
+                    watchedIds.size(), friendIds.size(), authenticatedUserId);
+
+            // Subscribe before reading so no change between the snapshot and the subscription is lost
+            presenceSubscriptionService.subscribe(headerAccessor.getSessionId(), authenticatedUserId.toString(), watchedIds);
+
             // Filter friends who are online
-            Set<String> onlineFriendIds = redisOnlineUserRepository.filterOnlineUsers(friendIds);
+            Set<String> onlineFriendIds = redisOnlineUserRepository.filterOnlineUsers(watchedIds);
 
             log.info("User {} has {} online friends out of {} total friends",
-                    authenticatedUserId, onlineFriendIds.size(), friendIds.size());
+                    authenticatedUserId, onlineFriendIds.size(), watchedIds.size());
 
             // Send online friends list back to the user
             simpMessagingTemplate.convertAndSendToUser(
@@ -197,7 +227,7 @@ public class ChatMessageController {
             // Send typing event to receiver only
             log.debug("Sending typing event from {} to {}",
                     typingEvent.getSenderId(), typingEvent.getReceiverId());
-            simpMessagingTemplate.convertAndSendToUser(
+            messageDeliveryService.deliverToUser(
                     typingEvent.getReceiverId(),
                     "/queue/typing",
                     typingEvent
@@ -209,4 +239,27 @@ public class ChatMessageController {
             log.error("Failed to send typing event: {}", e.getMessage());
         }
     }
+
+    /**
+     * Distinct ids from the client's list that are friends of the user, at most MAX_WATCHED_USERS of them
+     */
+    private List<String> friendsOnly(Long userId, List<String> requestedIds) {
+        List<String> friends = new ArrayList<>(Math.min(requestedIds.size(), MAX_WATCHED_USERS));
+        Set<String> seen = new HashSet<>();
+        for (String requestedId : requestedIds) {
+            if (friends.size() == MAX_WATCHED_USERS) {
+                log.warn("User {} asked to watch {} users, keeping the first {} friends",
+                        userId, requestedIds.size(), MAX_WATCHED_USERS);
+                break;
+            }
+            try {
+                if (seen.add(requestedId) && friendIdsCache.areFriends(userId, Long.valueOf(requestedId))) {
+                    friends.add(requestedId);
+                }
+            } catch (NumberFormatException e) {
+                log.debug("Ignoring non-numeric user id {} in watch list of user {}", requestedId, userId);
+            }
+        }
+        return friends;
+    }
 }
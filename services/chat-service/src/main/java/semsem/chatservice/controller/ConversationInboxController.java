@@ -0,0 +1,47 @@
+package semsem.chatservice.controller;
+
+import com.app.shared.security.utils.SecurityUtils;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import semsem.chatservice.dto.response.CursorPageResponse;
+import semsem.chatservice.dto.response.InboxConversationResponseDto;
+import semsem.chatservice.service.ConversationInboxService;
+
+@RestController
+@RequestMapping("/api/conversations")
+@RequiredArgsConstructor
+@Slf4j
+public class ConversationInboxController {
+
+    private final ConversationInboxService conversationInboxService;
+
+    /**
+     * Conversations of the authenticated user, most recently active first
+     * GET /api/conversations/inbox?cursor={lastMessageId}&size=20
+     */
+    @GetMapping("/inbox")
+    @PreAuthorize("hasRole('ROLE_USER')")
+    public ResponseEntity<CursorPageResponse<InboxConversationResponseDto>> getInbox(
+            @RequestParam(required = false) Long cursor,
+            @RequestParam(defaultValue = "20") int size
+    ) {
+        Long userId = SecurityUtils.getCurrentUserId();
+        log.debug("Fetching inbox: userId={}, cursor={}, size={}", userId, cursor, size);
+        return ResponseEntity.ok(conversationInboxService.getInbox(userId, cursor, size));
+    }
+
+    /**
+     * Reset the unread counter of a conversation
+     * POST /api/conversations/{conversationId}/read
+     */
+    @PostMapping("/{conversationId}/read")
+    @PreAuthorize("hasRole('ROLE_USER')")
+    public ResponseEntity<Void> markAsRead(@PathVariable("conversationId") String conversationId) {
+        Long userId = SecurityUtils.getCurrentUserId();
+        conversationInboxService.markAsRead(userId, conversationId);
+        return ResponseEntity.noContent().build();
+    }
+}
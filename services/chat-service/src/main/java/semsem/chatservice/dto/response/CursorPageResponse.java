@@ -0,0 +1,16 @@
+package semsem.chatservice.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class CursorPageResponse<T> {
+    private List<T> content;
+    private Long nextCursor;   // Snowflake ID to pass as `cursor` for the next page; null on the last page
+    private boolean hasMore;
+}
@@ -0,0 +1,15 @@
+package semsem.chatservice.dto.response;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class InboxConversationResponseDto {
+    private String conversationId;
+    private String conversationType;
+    private String conversationName;
+    private Long lastMessageId;     // Snowflake ID — also the cursor for the next page
+    private String lastMessagePreview;
+    private int unreadCount;
+}
@@ -1,10 +1,14 @@
 package semsem.chatservice.dto.response;
 
+import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
 @Data
 @Builder
+@AllArgsConstructor
+@NoArgsConstructor
 public class OnlineUserStatusResponseDto {
     private Long userId;
     private boolean isOnline;
@@ -0,0 +1,7 @@
+package semsem.chatservice.enums;
+
+public enum FriendshipActionType {
+    ACCEPTED,
+    REMOVED,
+    BLOCKED
+}
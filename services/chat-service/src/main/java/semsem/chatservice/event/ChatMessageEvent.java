@@ -21,4 +21,5 @@ public class ChatMessageEvent {
     private MessageType messageType;
     private ConversationType conversationType;
     private long        createdAtEpochMs;
+    private boolean     readMarker;      // true: not a message — senderId has read every message before it in the partition
 }
\ No newline at end of file
@@ -0,0 +1,20 @@
+package semsem.chatservice.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import semsem.chatservice.enums.FriendshipActionType;
+
+/**
+ * Friendship change published by main-service on the {@code friendship-events} topic.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class FriendshipEvent {
+    private FriendshipActionType actionType;
+    private Long userId1;
+    private Long userId2;
+}
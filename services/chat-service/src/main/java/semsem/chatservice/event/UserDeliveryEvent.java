@@ -0,0 +1,21 @@
+package semsem.chatservice.event;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Envelope published, in batches, on another instance's delivery channel.
+ * The receiving instance pushes {@code payload} to the user's local STOMP sessions.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class UserDeliveryEvent {
+    private String   userId;
+    private String   destination;  // user destination, e.g. /queue/messages
+    private JsonNode payload;
+}
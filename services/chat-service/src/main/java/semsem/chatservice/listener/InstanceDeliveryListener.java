@@ -0,0 +1,41 @@
+package semsem.chatservice.listener;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Component;
+import semsem.chatservice.event.UserDeliveryEvent;
+
+import java.util.List;
+
+/**
+ * Receives deliveries routed to this instance by other nodes and pushes them
+ * to the recipients' local STOMP sessions. Each message carries a batch of deliveries.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class InstanceDeliveryListener implements MessageListener {
+
+    private static final TypeReference<List<UserDeliveryEvent>> EVENT_LIST = new TypeReference<>() {};
+
+    private final SimpMessagingTemplate simpMessagingTemplate;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        try {
+            List<UserDeliveryEvent> events = objectMapper.readValue(message.getBody(), EVENT_LIST);
+            for (UserDeliveryEvent event : events) {
+                simpMessagingTemplate.convertAndSendToUser(event.getUserId(), event.getDestination(), event.getPayload());
+            }
+            log.debug("Delivered {} routed messages", events.size());
+        } catch (Exception e) {
+            log.error("Failed to deliver routed message: {}", e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package semsem.chatservice.listener;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Component;
+import semsem.chatservice.dto.response.OnlineUserStatusResponseDto;
+import semsem.chatservice.service.PresenceSubscriptionService;
+
+import java.util.List;
+
+/**
+ * Receives coalesced presence changes published by any instance and delivers them as one delta per
+ * recipient on {@code /user/queue/online-friends-diff} to the local sessions that subscribed a watch list
+ * via {@code /app/friends.checkOnline}. Friends are not resolved here: the originating instance routes
+ * their deltas through the instance registry, so this is only in-memory lookups on the listener thread.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PresenceBroadcastListener implements MessageListener {
+
+    public static final String PRESENCE_CHANNEL = "chat:presence";
+
+    private static final TypeReference<List<OnlineUserStatusResponseDto>> STATUS_LIST = new TypeReference<>() {};
+
+    private final SimpMessagingTemplate simpMessagingTemplate;
+    private final ObjectMapper objectMapper;
+    private final PresenceSubscriptionService presenceSubscriptionService;
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        try {
+            List<OnlineUserStatusResponseDto> changes = objectMapper.readValue(message.getBody(), STATUS_LIST);
+            presenceSubscriptionService.watcherChangesByRecipient(changes).forEach((recipientUserId, delta) ->
+                    simpMessagingTemplate.convertAndSendToUser(recipientUserId, "/queue/online-friends-diff", delta));
+        } catch (Exception e) {
+            log.error("Failed to broadcast presence changes: {}", e.getMessage(), e);
+        }
+    }
+}
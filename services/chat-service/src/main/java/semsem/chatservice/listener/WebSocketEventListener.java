@@ -4,31 +4,27 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.event.EventListener;
-import org.springframework.data.redis.core.RedisTemplate;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
 import org.springframework.stereotype.Component;
 import org.springframework.web.socket.messaging.SessionConnectEvent;
 import org.springframework.web.socket.messaging.SessionDisconnectEvent;
-import semsem.chatservice.dto.response.OnlineUserStatusResponseDto;
-import semsem.chatservice.repository.RedisOnlineUserRepository;
+import semsem.chatservice.repository.RedisUserInstanceRepository;
 import semsem.chatservice.security.WebSocketAuthenticationHelper;
+import semsem.chatservice.service.ActiveUserService;
+import semsem.chatservice.service.PresenceSubscriptionService;
+import semsem.chatservice.utils.OnlineUserVal;
 
 import java.util.Objects;
-import java.util.concurrent.TimeUnit;
 
 @Slf4j
 @Component
 @RequiredArgsConstructor
 public class WebSocketEventListener {
 
-    private static final String USER_INSTANCE_KEY_PREFIX = "user:ws:";
-    private static final long   USER_INSTANCE_TTL_HOURS  = 24;
-
-    private final SimpMessagingTemplate simpMessagingTemplate;
     private final WebSocketAuthenticationHelper webSocketAuthenticationHelper;
-    private final RedisOnlineUserRepository redisOnlineUserRepository;
-    private final RedisTemplate<String, Object> redisTemplate;
+    private final ActiveUserService activeUserService;
+    private final PresenceSubscriptionService presenceSubscriptionService;
+    private final RedisUserInstanceRepository redisUserInstanceRepository;
 
     // Unique ID for this Chat Service instance (set via env var in deployment)
     @Value("${chat.instance-id:default-instance}")
@@ -44,20 +40,19 @@ public class WebSocketEventListener {
             return;
         }
 
-        redisOnlineUserRepository.addOnlineUser(userId.toString());
+        // Presence is per session: the user stays online until their last session on any instance is gone.
+        // Status changes are delivered to the user's online friends, coalesced per user.
+        activeUserService.userConnected(headerAccessor.getSessionId(), OnlineUserVal.builder()
+                .sessionId(headerAccessor.getSessionId())
+                .username(webSocketAuthenticationHelper.getEmail(headerAccessor))
+                .userId(userId.toString())
+                .build());
 
         // Record which Chat Service instance holds this user's WebSocket connection.
-        // The Delivery Consumer uses this to route messages via Redis Pub/Sub.
-        redisTemplate.opsForValue().set(
-                USER_INSTANCE_KEY_PREFIX + userId,
-                instanceId,
-                USER_INSTANCE_TTL_HOURS, TimeUnit.HOURS
-        );
-
-        log.info("User connected: userId={}, instance={}, totalOnline={}",
-                userId, instanceId, redisOnlineUserRepository.getOnlineUserCount());
+        // MessageDeliveryService uses this to route messages via Redis Pub/Sub.
+        redisUserInstanceRepository.register(userId.toString(), instanceId);
 
-        broadcastUserStatus(userId, true);
+        log.info("User connected: userId={}, instance={}", userId, instanceId);
     }
 
     @EventListener
@@ -70,21 +65,12 @@ public class WebSocketEventListener {
             return;
         }
 
-        redisOnlineUserRepository.removeOnlineUser(userId.toString());
-        redisTemplate.delete(USER_INSTANCE_KEY_PREFIX + userId);
-
-        log.info("User disconnected: userId={}, instance={}, totalOnline={}",
-                userId, instanceId, redisOnlineUserRepository.getOnlineUserCount());
-
-        broadcastUserStatus(userId, false);
-    }
-
-    private void broadcastUserStatus(Long userId, boolean isOnline) {
-        try {
-            simpMessagingTemplate.convertAndSend("/topic/public",
-                    OnlineUserStatusResponseDto.builder().userId(userId).isOnline(isOnline).build());
-        } catch (Exception e) {
-            log.error("Failed to broadcast status for userId={}: {}", userId, e.getMessage(), e);
+        activeUserService.userDisconnected(event.getSessionId());
+        presenceSubscriptionService.unsubscribe(event.getSessionId());
+        if (!activeUserService.hasLocalSessions(userId.toString())) {
+            redisUserInstanceRepository.unregister(userId.toString(), instanceId);
         }
+
+        log.info("User disconnected: userId={}, instance={}", userId, instanceId);
     }
-}
\ No newline at end of file
+}
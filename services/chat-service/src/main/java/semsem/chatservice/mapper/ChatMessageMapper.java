@@ -5,7 +5,9 @@ import org.springframework.stereotype.Component;
 import semsem.chatservice.dto.request.NewPrivateChatMessageRequestDto;
 import semsem.chatservice.dto.request.NewPublicChatMessageRequestDto;
 import semsem.chatservice.dto.response.ChatMessageResponseDto;
+import semsem.chatservice.enums.MessageType;
 import semsem.chatservice.model.ChatMessage;
+import semsem.chatservice.model.ConversationMessage;
 
 @Component
 public class ChatMessageMapper {
@@ -42,4 +44,16 @@ public class ChatMessageMapper {
                         .timestamp(chatMessage.getTimestamp())
                         .build();
     }
+
+    public ChatMessageResponseDto mapConversationMessageToResponseDto(ConversationMessage message) {
+        return ChatMessageResponseDto.builder()
+                        .id(message.getMessageId())
+                        .chatId(message.getConversationId())
+                        .senderId(message.getSenderId())
+                        .receiverId(message.getReceiverId())
+                        .content(message.getContent())
+                        .messageType(message.getMessageType() != null ? MessageType.valueOf(message.getMessageType()) : null)
+                        .timestamp(message.getCreatedAt())
+                        .build();
+    }
 }
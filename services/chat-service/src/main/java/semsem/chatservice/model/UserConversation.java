@@ -0,0 +1,41 @@
+package semsem.chatservice.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.cassandra.core.cql.Ordering;
+import org.springframework.data.cassandra.core.cql.PrimaryKeyType;
+import org.springframework.data.cassandra.core.mapping.Column;
+import org.springframework.data.cassandra.core.mapping.PrimaryKeyColumn;
+import org.springframework.data.cassandra.core.mapping.Table;
+
+@Table("user_conversations")
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class UserConversation {
+
+    @PrimaryKeyColumn(name = "user_id", type = PrimaryKeyType.PARTITIONED)
+    private long userId;
+
+    // Clustering DESC: most recently active conversation first — doubles as the inbox cursor
+    @PrimaryKeyColumn(name = "last_message_id", type = PrimaryKeyType.CLUSTERED, ordering = Ordering.DESCENDING)
+    private long lastMessageId;
+
+    @Column("conversation_id")
+    private String conversationId;
+
+    @Column("conversation_type")
+    private String conversationType;
+
+    @Column("conversation_name")
+    private String conversationName;
+
+    @Column("last_message_preview")
+    private String lastMessagePreview;
+
+    @Column("unread_count")
+    private int unreadCount;
+}
@@ -0,0 +1,83 @@
+package semsem.chatservice.repository;
+
+import com.datastax.oss.driver.api.core.CqlSession;
+import com.datastax.oss.driver.api.core.cql.BatchStatement;
+import com.datastax.oss.driver.api.core.cql.BatchStatementBuilder;
+import com.datastax.oss.driver.api.core.cql.BatchType;
+import com.datastax.oss.driver.api.core.cql.PreparedStatement;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Repository;
+import semsem.chatservice.model.ConversationMessage;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Writes messages of one conversation to messages_by_conversation through the driver's async API.
+ * All rows share the same partition key, so they are sent as UNLOGGED batches: one coordinator
+ * round trip and one partition mutation per batch, without the batchlog cost of a LOGGED batch.
+ */
+@Repository
+@Slf4j
+public class ConversationMessageBatchWriter {
+
+    private static final String INSERT_CQL = "INSERT INTO messages_by_conversation "
+            + "(conversation_id, message_id, sender_id, receiver_id, content, message_type, conversation_type, created_at) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final CqlSession session;
+    private final int maxStatementsPerBatch;
+
+    // prepared on first use: the keyspace may not exist yet when the service starts
+    private volatile PreparedStatement insertStatement;
+
+    public ConversationMessageBatchWriter(CqlSession session,
+                                          @Value("${chat.persistence.max-statements-per-batch:50}") int maxStatementsPerBatch) {
+        this.session = session;
+        this.maxStatementsPerBatch = Math.max(1, maxStatementsPerBatch);
+    }
+
+    /**
+     * Inserts the messages of a single conversation. Inserts are idempotent (same primary key,
+     * same values), so a redelivered batch can safely be written again.
+     */
+    public CompletableFuture<Void> saveConversationMessagesAsync(List<ConversationMessage> messages) {
+        PreparedStatement insert = insertStatement();
+
+        List<CompletableFuture<?>> writes = new ArrayList<>();
+        for (int from = 0; from < messages.size(); from += maxStatementsPerBatch) {
+            List<ConversationMessage> chunk = messages.subList(from, Math.min(from + maxStatementsPerBatch, messages.size()));
+
+            BatchStatementBuilder batch = BatchStatement.builder(BatchType.UNLOGGED);
+            for (ConversationMessage message : chunk) {
+                batch.addStatement(insert.bind(
+                        message.getConversationId(),
+                        message.getMessageId(),
+                        message.getSenderId(),
+                        message.getReceiverId(),
+                        message.getContent(),
+                        message.getMessageType(),
+                        message.getConversationType(),
+                        message.getCreatedAt()));
+            }
+            writes.add(session.executeAsync(batch.build()).toCompletableFuture());
+        }
+        return CompletableFuture.allOf(writes.toArray(CompletableFuture[]::new));
+    }
+
+    private PreparedStatement insertStatement() {
+        PreparedStatement statement = insertStatement;
+        if (statement == null) {
+            synchronized (this) {
+                statement = insertStatement;
+                if (statement == null) {
+                    statement = session.prepare(INSERT_CQL);
+                    insertStatement = statement;
+                }
+            }
+        }
+        return statement;
+    }
+}
@@ -1,11 +1,13 @@
 package semsem.chatservice.repository;
 
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisOperations;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
 import org.springframework.stereotype.Repository;
 import semsem.chatservice.model.ChatMessage;
 import semsem.chatservice.repository.base.BaseRedisHashRepository;
-import semsem.chatservice.repository.base.BaseRedisListRepository;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -15,16 +17,21 @@ import java.util.concurrent.TimeUnit;
 @Slf4j
 public class RedisChatMessageRepository {
 
-    private static final String CHAT_KEY_PREFIX = "chat:messages:";
+    // new prefix for the Smile-encoded ring; old JSON lists under chat:messages: simply expire
+    private static final String CHAT_KEY_PREFIX = "chat:ring:";
     private static final String PRIVATE_CHAT_KEY_PREFIX = "chat:private:";
     private static final long MESSAGE_TTL_HOURS = 24; // Messages expire after 24 hours
 
-    private final ChatMessageListRepository messageListRepository;
+    private final RedisTemplate<String, ChatMessage> ringTemplate;
     private final PrivateChatHashRepository privateChatHashRepository;
+    private final int hotTailSize;
 
-    public RedisChatMessageRepository(RedisTemplate<String, Object> redisTemplate) {
-        this.messageListRepository = new ChatMessageListRepository(redisTemplate, CHAT_KEY_PREFIX);
+    public RedisChatMessageRepository(RedisTemplate<String, Object> redisTemplate,
+                                      RedisTemplate<String, ChatMessage> chatMessageRingTemplate,
+                                      @Value("${chat.history.hot-tail-size:200}") int hotTailSize) {
+        this.ringTemplate = chatMessageRingTemplate;
         this.privateChatHashRepository = new PrivateChatHashRepository(redisTemplate, PRIVATE_CHAT_KEY_PREFIX);
+        this.hotTailSize = Math.max(1, hotTailSize);
     }
 
     // ============================================================================
@@ -32,79 +39,63 @@ public class RedisChatMessageRepository {
     // ============================================================================
 
     /**
-     * Save a chat message to Redis with TTL
+     * Append a chat message to the conversation's recent-message ring.
+     * RPUSH, LTRIM and EXPIRE go out as one pipelined round trip; the ring only keeps the newest
+     * messages of a chat (the hot tail), older history is read from Cassandra.
      */
     public void saveMessage(ChatMessage message) {
         try {
-            String chatId = message.getChatId();
-            messageListRepository.rightPush(chatId, message);
-            messageListRepository.expire(chatId, MESSAGE_TTL_HOURS, TimeUnit.HOURS);
-            log.debug("Message saved to Redis: chatId={}, messageId={}", chatId, message.getMessageId());
+            String key = ringKey(message.getChatId());
+            ringTemplate.executePipelined(new SessionCallback<Object>() {
+                @Override
+                @SuppressWarnings("unchecked")
+                public <K, V> Object execute(RedisOperations<K, V> operations) {
+                    RedisOperations<String, ChatMessage> ringOperations = (RedisOperations<String, ChatMessage>) operations;
+                    ringOperations.opsForList().rightPush(key, message);
+                    ringOperations.opsForList().trim(key, -hotTailSize, -1);
+                    ringOperations.expire(key, MESSAGE_TTL_HOURS, TimeUnit.HOURS);
+                    return null;
+                }
+            });
+            log.debug("Message saved to Redis: chatId={}, messageId={}", message.getChatId(), message.getMessageId());
         } catch (Exception e) {
             log.error("Error saving message to Redis: {}", e.getMessage(), e);
         }
     }
 
     /**
-     * Get all messages for a chat room from Redis
+     * Get all messages for a chat room from Redis (at most the ring capacity)
      */
     public List<ChatMessage> getMessagesByChatId(String chatId) {
-        try {
-            List<Object> messages = messageListRepository.getAll(chatId);
-
-            if (messages.isEmpty()) {
-                log.debug("No messages found in Redis for chatId={}", chatId);
-                return new ArrayList<>();
-            }
-
-            List<ChatMessage> chatMessages = new ArrayList<>();
-            for (Object obj : messages) {
-                if (obj instanceof ChatMessage) {
-                    chatMessages.add((ChatMessage) obj);
-                }
-            }
-
-            log.debug("Retrieved {} messages from Redis for chatId={}", chatMessages.size(), chatId);
-            return chatMessages;
-        } catch (Exception e) {
-            log.error("Error retrieving messages from Redis: {}", e.getMessage(), e);
-            return new ArrayList<>();
-        }
+        return getRecentMessages(chatId, hotTailSize);
     }
 
     /**
-     * Get recent messages (last N messages) from Redis
+     * Get recent messages (last N messages) from Redis with a single LRANGE, oldest first
      */
     public List<ChatMessage> getRecentMessages(String chatId, int count) {
         try {
-            long totalSize = messageListRepository.size(chatId);
-            long start = Math.max(0, totalSize - count);
-            List<Object> messages = messageListRepository.range(chatId, start, -1);
-
-            if (messages.isEmpty()) {
-                return new ArrayList<>();
-            }
-
-            List<ChatMessage> chatMessages = new ArrayList<>();
-            for (Object obj : messages) {
-                if (obj instanceof ChatMessage) {
-                    chatMessages.add((ChatMessage) obj);
-                }
-            }
-
-            return chatMessages;
+            List<ChatMessage> messages = ringTemplate.opsForList().range(ringKey(chatId), -Math.max(1, count), -1);
+            return messages != null ? messages : new ArrayList<>();
         } catch (Exception e) {
             log.error("Error retrieving recent messages from Redis: {}", e.getMessage(), e);
             return new ArrayList<>();
         }
     }
 
+    /**
+     * Get the whole hot tail of a chat, oldest first
+     */
+    public List<ChatMessage> getHotTail(String chatId) {
+        return getRecentMessages(chatId, hotTailSize);
+    }
+
     /**
      * Delete all messages for a specific chat
      */
     public void deleteChatMessages(String chatId) {
         try {
-            messageListRepository.delete(chatId);
+            ringTemplate.delete(ringKey(chatId));
             log.debug("Deleted messages from Redis for chatId={}", chatId);
         } catch (Exception e) {
             log.error("Error deleting messages from Redis: {}", e.getMessage(), e);
@@ -116,7 +107,7 @@ public class RedisChatMessageRepository {
      */
     public boolean chatExists(String chatId) {
         try {
-            return messageListRepository.exists(chatId);
+            return Boolean.TRUE.equals(ringTemplate.hasKey(ringKey(chatId)));
         } catch (Exception e) {
             log.error("Error checking chat existence in Redis: {}", e.getMessage(), e);
             return false;
@@ -128,13 +119,18 @@ public class RedisChatMessageRepository {
      */
     public long getMessageCount(String chatId) {
         try {
-            return messageListRepository.size(chatId);
+            Long size = ringTemplate.opsForList().size(ringKey(chatId));
+            return size != null ? size : 0L;
         } catch (Exception e) {
             log.error("Error getting message count from Redis: {}", e.getMessage(), e);
             return 0;
         }
     }
 
+    private String ringKey(String chatId) {
+        return CHAT_KEY_PREFIX + chatId;
+    }
+
     // ============================================================================
     // Business Logic Methods - Private Chat Operations
     // ============================================================================
@@ -171,16 +167,6 @@ public class RedisChatMessageRepository {
     }
 
 
-    /**
-     * Repository for chat message list operations
-     * Extends BaseRedisListRepository to inherit core List CRUD operations
-     */
-    private static class ChatMessageListRepository extends BaseRedisListRepository<ChatMessage> {
-        public ChatMessageListRepository(RedisTemplate<String, Object> redisTemplate, String keyPrefix) {
-            super(redisTemplate, keyPrefix);
-        }
-    }
-
     /**
      * Repository for private chat hash operations
      * Extends BaseRedisHashRepository to inherit core Hash CRUD operations
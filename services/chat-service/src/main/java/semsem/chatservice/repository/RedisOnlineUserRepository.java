@@ -1,68 +1,143 @@
 package semsem.chatservice.repository;
 
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
 import org.springframework.stereotype.Repository;
-import semsem.chatservice.repository.base.BaseRedisSetRepository;
-import semsem.chatservice.repository.base.BaseRedisValueRepository;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
-import java.util.concurrent.TimeUnit;
 
+/**
+ * Multi-session presence.
+ * Every user has a ZSET of live WebSocket sessions scored by their expiry; the user is online while
+ * that ZSET holds an unexpired session. Connect, disconnect, heartbeat and sweep each run as one
+ * server-side script, so the offline/online transition is decided atomically across instances.
+ * Keys are plain strings (no JSON encoding) so the scripts can compare members directly.
+ */
 @Repository
 @Slf4j
 public class RedisOnlineUserRepository {
 
-    private static final String ONLINE_USERS_KEY = "chat:online:users";
-    private static final String USER_SESSION_PREFIX = "chat:user:session:";
-    private static final long USER_SESSION_TTL_HOURS = 24; // User session expires after 24 hours
-
-    private final OnlineUsersSetRepository onlineUsersSetRepository;
-    private final UserSessionValueRepository userSessionValueRepository;
-
-    public RedisOnlineUserRepository(RedisTemplate<String, Object> redisTemplate) {
-        // For online users set, we don't use a prefix per key since it's a single global set
-        // We'll override the key generation logic
-        this.onlineUsersSetRepository = new OnlineUsersSetRepository(redisTemplate, "");
-        this.userSessionValueRepository = new UserSessionValueRepository(redisTemplate, USER_SESSION_PREFIX);
+    private static final String ONLINE_USERS_KEY = "chat:presence:online";
+    private static final String USER_SESSIONS_PREFIX = "chat:presence:sessions:";
+    private static final String SWEEP_LOCK_KEY = "chat:presence:sweep-lock";
+
+    private static final RedisScript<Long> ADD_SESSION = RedisScript.of(
+            new ClassPathResource("redis/presence-add-session.lua"), Long.class);
+    private static final RedisScript<Long> REMOVE_SESSION = RedisScript.of(
+            new ClassPathResource("redis/presence-remove-session.lua"), Long.class);
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> HEARTBEAT = RedisScript.of(
+            new ClassPathResource("redis/presence-heartbeat.lua"), List.class);
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> SWEEP = RedisScript.of(
+            new ClassPathResource("redis/presence-sweep.lua"), List.class);
+
+    private final StringRedisTemplate stringRedisTemplate;
+
+    public RedisOnlineUserRepository(StringRedisTemplate stringRedisTemplate) {
+        this.stringRedisTemplate = stringRedisTemplate;
     }
 
     // ============================================================================
-    // Business Logic Methods - Online User Management
+    // Business Logic Methods - Session Tracking
     // ============================================================================
 
     /**
-     * Add a user to the online users set
+     * Register a WebSocket session for a user
      *
-     * @param userId User ID
+     * @return true if the user was offline before this session
      */
-    public void addOnlineUser(String userId) {
-        try {
-            onlineUsersSetRepository.addToGlobalSet(userId);
-            userSessionValueRepository.set(userId, System.currentTimeMillis(), USER_SESSION_TTL_HOURS, TimeUnit.HOURS);
-            log.info("User {} marked as online in Redis", userId);
-        } catch (Exception e) {
-            log.error("Error adding online user to Redis: {}", e.getMessage(), e);
+    public boolean addSession(String userId, String sessionId, Duration sessionTtl) {
+        long now = System.currentTimeMillis();
+        Long wentOnline = stringRedisTemplate.execute(ADD_SESSION,
+                List.of(sessionsKey(userId), ONLINE_USERS_KEY),
+                sessionId, String.valueOf(now + sessionTtl.toMillis()), String.valueOf(now),
+                userId, String.valueOf(sessionTtl.getSeconds()));
+        return Long.valueOf(1L).equals(wentOnline);
+    }
+
+    /**
+     * Remove a WebSocket session of a user
+     *
+     * @return true if it was the user's last live session
+     */
+    public boolean removeSession(String userId, String sessionId) {
+        Long wentOffline = stringRedisTemplate.execute(REMOVE_SESSION,
+                List.of(sessionsKey(userId), ONLINE_USERS_KEY),
+                sessionId, String.valueOf(System.currentTimeMillis()), userId);
+        return Long.valueOf(1L).equals(wentOffline);
+    }
+
+    /**
+     * Extend the expiry of the given sessions (sessionId -> userId) in one round trip
+     *
+     * @return user ids that had to be marked online again
+     */
+    @SuppressWarnings("unchecked")
+    public List<String> refreshSessions(Map<String, String> sessionUserIds, Duration sessionTtl) {
+        if (sessionUserIds.isEmpty()) {
+            return Collections.emptyList();
         }
+
+        List<String> keys = new ArrayList<>(sessionUserIds.size() + 1);
+        List<String> args = new ArrayList<>(sessionUserIds.size() * 2 + 2);
+        keys.add(ONLINE_USERS_KEY);
+        args.add(String.valueOf(System.currentTimeMillis() + sessionTtl.toMillis()));
+        args.add(String.valueOf(sessionTtl.getSeconds()));
+        sessionUserIds.forEach((sessionId, userId) -> {
+            keys.add(sessionsKey(userId));
+            args.add(userId);
+            args.add(sessionId);
+        });
+
+        List<String> revived = stringRedisTemplate.execute(HEARTBEAT, keys, args.toArray());
+        return revived != null ? revived : Collections.emptyList();
     }
 
     /**
-     * Remove a user from the online users set
+     * Take users whose sessions have all expired out of the online set.
+     * Only one instance sweeps per interval; the others return immediately.
      *
-     * @param userId User ID
+     * @return user ids that went offline
      */
-    public void removeOnlineUser(String userId) {
-        try {
-            onlineUsersSetRepository.removeFromGlobalSet(userId);
-            userSessionValueRepository.delete(userId);
-            log.info("User {} removed from online users in Redis", userId);
-        } catch (Exception e) {
-            log.error("Error removing online user from Redis: {}", e.getMessage(), e);
+    @SuppressWarnings("unchecked")
+    public List<String> sweepExpiredSessions(int batchSize, Duration lockTtl) {
+        if (!Boolean.TRUE.equals(stringRedisTemplate.opsForValue().setIfAbsent(SWEEP_LOCK_KEY, "1", lockTtl))) {
+            return Collections.emptyList();
         }
+
+        List<String> offline = new ArrayList<>();
+        List<String> batch = new ArrayList<>(batchSize);
+        ScanOptions options = ScanOptions.scanOptions().count(batchSize).build();
+        try (Cursor<String> cursor = stringRedisTemplate.opsForSet().scan(ONLINE_USERS_KEY, options)) {
+            while (cursor.hasNext()) {
+                batch.add(cursor.next());
+                if (batch.size() == batchSize) {
+                    offline.addAll(sweepBatch(batch));
+                    batch.clear();
+                }
+            }
+        }
+        if (!batch.isEmpty()) {
+            offline.addAll(sweepBatch(batch));
+        }
+        return offline;
     }
 
+    // ============================================================================
+    // Business Logic Methods - Presence Reads
+    // ============================================================================
+
     /**
      * Get all online user IDs
      *
@@ -70,21 +145,8 @@ public class RedisOnlineUserRepository {
      */
     public Set<String> getAllOnlineUsers() {
         try {
-            Set<Object> members = onlineUsersSetRepository.getGlobalSetMembers();
-            if (members.isEmpty()) {
-                log.info("No online users found in Redis");
-                return new HashSet<>();
-            }
-
-            Set<String> onlineUsers = new HashSet<>();
-            for (Object member : members) {
-                if (member != null) {
-                    onlineUsers.add(member.toString());
-                }
-            }
-
-            log.info("Retrieved {} online users from Redis", onlineUsers.size());
-            return onlineUsers;
+            Set<String> members = stringRedisTemplate.opsForSet().members(ONLINE_USERS_KEY);
+            return members != null ? members : new HashSet<>();
         } catch (Exception e) {
             log.error("Error retrieving online users from Redis: {}", e.getMessage(), e);
             return new HashSet<>();
@@ -99,7 +161,7 @@ public class RedisOnlineUserRepository {
      */
     public boolean isUserOnline(String userId) {
         try {
-            return onlineUsersSetRepository.isInGlobalSet(userId);
+            return Boolean.TRUE.equals(stringRedisTemplate.opsForSet().isMember(ONLINE_USERS_KEY, userId));
         } catch (Exception e) {
             log.error("Error checking if user is online in Redis: {}", e.getMessage(), e);
             return false;
@@ -107,20 +169,27 @@ public class RedisOnlineUserRepository {
     }
 
     /**
-     * Filter online users from a given set of user IDs
+     * Filter online users from a given set of user IDs with a single SMISMEMBER round trip
      *
      * @param userIds Set of user IDs to check
      * @return Set of online user IDs
      */
     public Set<String> filterOnlineUsers(List<String> userIds) {
         Set<String> onlineUsers = new HashSet<>();
+        if (userIds.isEmpty()) {
+            return onlineUsers;
+        }
         try {
-            userIds.forEach(userId -> {
-                if (isUserOnline(userId)) {
-                    onlineUsers.add(userId);
-                }
-            });
-            log.info("Filtered {} online users from provided set", onlineUsers.size());
+            Map<Object, Boolean> membership = stringRedisTemplate.opsForSet()
+                    .isMember(ONLINE_USERS_KEY, userIds.toArray());
+            if (membership != null) {
+                membership.forEach((userId, online) -> {
+                    if (Boolean.TRUE.equals(online)) {
+                        onlineUsers.add(userId.toString());
+                    }
+                });
+            }
+            log.debug("Filtered {} online users out of {}", onlineUsers.size(), userIds.size());
         } catch (Exception e) {
             log.error("Error filtering online users from Redis: {}", e.getMessage(), e);
         }
@@ -134,91 +203,29 @@ public class RedisOnlineUserRepository {
      */
     public long getOnlineUserCount() {
         try {
-            return onlineUsersSetRepository.getGlobalSetSize();
+            Long size = stringRedisTemplate.opsForSet().size(ONLINE_USERS_KEY);
+            return size != null ? size : 0L;
         } catch (Exception e) {
             log.error("Error getting online user count from Redis: {}", e.getMessage(), e);
             return 0;
         }
     }
 
-    /**
-     * Refresh user session TTL
-     *
-     * @param userId User ID
-     */
-    public void refreshUserSession(String userId) {
-        try {
-            if (userSessionValueRepository.exists(userId)) {
-                userSessionValueRepository.refreshTTL(userId, USER_SESSION_TTL_HOURS, TimeUnit.HOURS);
-                log.info("Refreshed session TTL for user {}", userId);
-            }
-        } catch (Exception e) {
-            log.error("Error refreshing user session TTL: {}", e.getMessage(), e);
+    @SuppressWarnings("unchecked")
+    private List<String> sweepBatch(List<String> userIds) {
+        List<String> keys = new ArrayList<>(userIds.size() + 1);
+        List<String> args = new ArrayList<>(userIds.size() + 1);
+        keys.add(ONLINE_USERS_KEY);
+        args.add(String.valueOf(System.currentTimeMillis()));
+        for (String userId : userIds) {
+            keys.add(sessionsKey(userId));
+            args.add(userId);
         }
+        List<String> offline = stringRedisTemplate.execute(SWEEP, keys, args.toArray());
+        return offline != null ? offline : Collections.emptyList();
     }
 
-    // ============================================================================
-    // Inner Repository Classes - Core CRUD Operations Delegation
-    // ============================================================================
-
-    /**
-     * Repository for online users set operations
-     * Extends BaseRedisSetRepository to inherit core Set CRUD operations
-     */
-    private static class OnlineUsersSetRepository extends BaseRedisSetRepository<String> {
-        public OnlineUsersSetRepository(RedisTemplate<String, Object> redisTemplate, String keyPrefix) {
-            super(redisTemplate, keyPrefix);
-        }
-
-        /**
-         * Add a user to the global online users set
-         */
-        public void addToGlobalSet(String userId) {
-            add(ONLINE_USERS_KEY, userId);
-        }
-
-        /**
-         * Remove a user from the global online users set
-         */
-        public void removeFromGlobalSet(String userId) {
-            remove(ONLINE_USERS_KEY, userId);
-        }
-
-        /**
-         * Check if a user is in the global online users set
-         */
-        public boolean isInGlobalSet(String userId) {
-            return isMember(ONLINE_USERS_KEY, userId);
-        }
-
-        /**
-         * Get all members of the global online users set
-         */
-        public Set<Object> getGlobalSetMembers() {
-            return members(ONLINE_USERS_KEY);
-        }
-
-        /**
-         * Get the size of the global online users set
-         */
-        public long getGlobalSetSize() {
-            return size(ONLINE_USERS_KEY);
-        }
-
-        @Override
-        protected String generateKey(String identifier) {
-            // For the global set, we don't use the prefix
-            return identifier;
-        }
-    }
-
-    /**
-     * Repository for user session value operations
-     * Extends BaseRedisValueRepository to inherit core Value CRUD operations
-     */
-    private static class UserSessionValueRepository extends BaseRedisValueRepository<Long> {
-        public UserSessionValueRepository(RedisTemplate<String, Object> redisTemplate, String keyPrefix) {
-            super(redisTemplate, keyPrefix);
-        }
+    private String sessionsKey(String userId) {
+        return USER_SESSIONS_PREFIX + userId;
     }
 }
@@ -0,0 +1,117 @@
+package semsem.chatservice.repository;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Registry of which Chat Service instances hold a user's WebSocket connections
+ * ({@code chat:ws:instances:{userId}}, a ZSET of instance ids scored by the time their registration expires).
+ * A user connected from several devices can be on several instances at once. Instances re-register their
+ * users on every presence heartbeat, so the registration of a crashed instance runs out on its own.
+ * Used to route deliveries to the right nodes.
+ */
+@Repository
+@Slf4j
+public class RedisUserInstanceRepository {
+
+    private static final String USER_INSTANCES_KEY_PREFIX = "chat:ws:instances:";
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final Duration registrationTtl;
+
+    public RedisUserInstanceRepository(StringRedisTemplate stringRedisTemplate,
+                                       @Value("${chat.presence.session-ttl:90s}") Duration registrationTtl) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.registrationTtl = registrationTtl;
+    }
+
+    /**
+     * Record (or extend) that the given users are connected to the given instance, in one pipelined round trip
+     */
+    public void register(Collection<String> userIds, String instanceId) {
+        if (userIds.isEmpty()) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        stringRedisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <K, V> Object execute(RedisOperations<K, V> operations) {
+                RedisOperations<String, String> stringOperations = (RedisOperations<String, String>) operations;
+                for (String userId : userIds) {
+                    String key = instancesKey(userId);
+                    stringOperations.opsForZSet().removeRangeByScore(key, Double.NEGATIVE_INFINITY, now);
+                    stringOperations.opsForZSet().add(key, instanceId, now + registrationTtl.toMillis());
+                    stringOperations.expire(key, registrationTtl);
+                }
+                return null;
+            }
+        });
+    }
+
+    public void register(String userId, String instanceId) {
+        register(List.of(userId), instanceId);
+    }
+
+    /**
+     * Live instances holding the user's connections; empty when the user is not connected
+     */
+    public Set<String> findInstances(String userId) {
+        Set<String> instances = stringRedisTemplate.opsForZSet()
+                .rangeByScore(instancesKey(userId), System.currentTimeMillis(), Double.POSITIVE_INFINITY);
+        return instances != null ? instances : Set.of();
+    }
+
+    /**
+     * Live instances per user in one pipelined round trip; users that are not connected are absent
+     */
+    public Map<String, Set<String>> findInstances(List<String> userIds) {
+        if (userIds.isEmpty()) {
+            return Map.of();
+        }
+        long now = System.currentTimeMillis();
+        List<Object> results = stringRedisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <K, V> Object execute(RedisOperations<K, V> operations) {
+                RedisOperations<String, String> stringOperations = (RedisOperations<String, String>) operations;
+                for (String userId : userIds) {
+                    stringOperations.opsForZSet().rangeByScore(instancesKey(userId), now, Double.POSITIVE_INFINITY);
+                }
+                return null;
+            }
+        });
+
+        Map<String, Set<String>> instancesByUserId = new HashMap<>();
+        for (int i = 0; i < userIds.size(); i++) {
+            @SuppressWarnings("unchecked")
+            Set<String> instances = (Set<String>) results.get(i);
+            if (instances != null && !instances.isEmpty()) {
+                instancesByUserId.put(userIds.get(i), instances);
+            }
+        }
+        return instancesByUserId;
+    }
+
+    /**
+     * Remove only this instance's registration; the user's connections on other instances keep routing
+     */
+    public void unregister(String userId, String instanceId) {
+        stringRedisTemplate.opsForZSet().remove(instancesKey(userId), instanceId);
+    }
+
+    private String instancesKey(String userId) {
+        return USER_INSTANCES_KEY_PREFIX + userId;
+    }
+}
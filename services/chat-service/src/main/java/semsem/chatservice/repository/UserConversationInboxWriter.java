@@ -0,0 +1,165 @@
+package semsem.chatservice.repository;
+
+import com.datastax.oss.driver.api.core.CqlSession;
+import com.datastax.oss.driver.api.core.cql.BatchStatement;
+import com.datastax.oss.driver.api.core.cql.BatchStatementBuilder;
+import com.datastax.oss.driver.api.core.cql.BatchType;
+import com.datastax.oss.driver.api.core.cql.PreparedStatement;
+import com.datastax.oss.driver.api.core.cql.Row;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Maintains the user_conversations inbox through user_conversation_state.
+ * An inbox row is keyed by its last message id, so bumping a conversation means deleting the row
+ * under the old id and inserting one under the new id; both tables change in one logged batch on
+ * the user's partition. Records at or below the stored chat-messages offset are ignored, which keeps
+ * unread counters exact when Kafka redelivers a batch. Offsets rather than message ids tell replays apart:
+ * all records of a conversation share one partition, whose order is the order they were applied in,
+ * while Snowflake ids minted by different instances may not follow it.
+ * <p>
+ * All messages of a conversation share a Kafka partition, and mark-read requests travel on the same
+ * partition as read markers, so a (user, conversation) pair only has one writer (the persistence
+ * consumer) and the read-modify-writes below never race with each other.
+ */
+@Repository
+@Slf4j
+public class UserConversationInboxWriter {
+
+    private static final String SELECT_STATE_CQL = "SELECT last_message_id, unread_count, last_offset FROM user_conversation_state "
+            + "WHERE user_id = ? AND conversation_id = ?";
+    private static final String DELETE_INBOX_ROW_CQL = "DELETE FROM user_conversations WHERE user_id = ? AND last_message_id = ?";
+    private static final String INSERT_INBOX_ROW_CQL = "INSERT INTO user_conversations "
+            + "(user_id, last_message_id, conversation_id, conversation_type, conversation_name, last_message_preview, unread_count) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?)";
+    private static final String UPSERT_STATE_CQL = "INSERT INTO user_conversation_state "
+            + "(user_id, conversation_id, last_message_id, unread_count, last_offset) VALUES (?, ?, ?, ?, ?)";
+    private static final String RESET_INBOX_UNREAD_CQL = "UPDATE user_conversations SET unread_count = 0 "
+            + "WHERE user_id = ? AND last_message_id = ?";
+
+    private final CqlSession session;
+
+    // prepared on first use: the keyspace may not exist yet when the service starts
+    private volatile PreparedStatements statements;
+
+    public UserConversationInboxWriter(CqlSession session) {
+        this.session = session;
+    }
+
+    /**
+     * Moves the conversation to the top of the user's inbox.
+     *
+     * @param lastOffset      chat-messages offset of the newest message in this update
+     * @param incomingOffsets offsets of the messages in this update that the user received (not sent);
+     *                        only the ones past the stored offset add to the unread counter
+     */
+    public CompletableFuture<Void> applyAsync(long userId, String conversationId, String conversationType,
+                                              long lastMessageId, String lastMessagePreview,
+                                              long lastOffset, List<Long> incomingOffsets) {
+        PreparedStatements prepared = statements();
+
+        return session.executeAsync(prepared.selectState.bind(userId, conversationId))
+                .toCompletableFuture()
+                .thenCompose(resultSet -> {
+                    Row state = resultSet.one();
+                    long previousLastMessageId = state != null ? state.getLong("last_message_id") : 0L;
+                    int previousUnread = state != null ? state.getInt("unread_count") : 0;
+                    long previousOffset = appliedOffset(state);
+
+                    if (previousOffset >= lastOffset) {
+                        return CompletableFuture.completedFuture(null);
+                    }
+
+                    int newlyUnread = (int) incomingOffsets.stream().filter(offset -> offset > previousOffset).count();
+                    int unread = previousUnread + newlyUnread;
+
+                    BatchStatementBuilder batch = BatchStatement.builder(BatchType.LOGGED);
+                    if (state != null) {
+                        batch.addStatement(prepared.deleteInboxRow.bind(userId, previousLastMessageId));
+                    }
+                    batch.addStatement(prepared.insertInboxRow.bind(userId, lastMessageId, conversationId,
+                            conversationType, null, lastMessagePreview, unread));
+                    batch.addStatement(prepared.upsertState.bind(userId, conversationId, lastMessageId, unread, lastOffset));
+
+                    return session.executeAsync(batch.build()).toCompletableFuture().thenApply(ignored -> (Void) null);
+                });
+    }
+
+    /**
+     * Resets the unread counter of one conversation in the user's inbox.
+     * A marker at or below the stored offset was already applied (Kafka redelivered a batch that messages
+     * after it were also applied from) and is ignored, so it cannot zero messages sent after it.
+     *
+     * @param markerOffset chat-messages offset of the read marker
+     */
+    public CompletableFuture<Void> markReadAsync(long userId, String conversationId, long markerOffset) {
+        PreparedStatements prepared = statements();
+
+        return session.executeAsync(prepared.selectState.bind(userId, conversationId))
+                .toCompletableFuture()
+                .thenCompose(resultSet -> {
+                    Row state = resultSet.one();
+                    if (state == null || state.getInt("unread_count") == 0) {
+                        return CompletableFuture.completedFuture(null);
+                    }
+                    if (appliedOffset(state) >= markerOffset) {
+                        log.debug("Skipping replayed read marker: userId={}, conversationId={}", userId, conversationId);
+                        return CompletableFuture.completedFuture(null);
+                    }
+
+                    long lastMessageId = state.getLong("last_message_id");
+                    BatchStatement batch = BatchStatement.builder(BatchType.LOGGED)
+                            .addStatement(prepared.resetInboxUnread.bind(userId, lastMessageId))
+                            .addStatement(prepared.upsertState.bind(userId, conversationId, lastMessageId, 0, markerOffset))
+                            .build();
+                    return session.executeAsync(batch).toCompletableFuture().thenApply(ignored -> (Void) null);
+                });
+    }
+
+    /**
+     * Offset of the newest record applied to the state; -1 if there is no state (or it predates offset tracking)
+     */
+    private static long appliedOffset(Row state) {
+        return state != null && !state.isNull("last_offset") ? state.getLong("last_offset") : -1L;
+    }
+
+    private PreparedStatements statements() {
+        PreparedStatements prepared = statements;
+        if (prepared == null) {
+            synchronized (this) {
+                prepared = statements;
+                if (prepared == null) {
+                    prepared = new PreparedStatements(
+                            session.prepare(SELECT_STATE_CQL),
+                            session.prepare(DELETE_INBOX_ROW_CQL),
+                            session.prepare(INSERT_INBOX_ROW_CQL),
+                            session.prepare(UPSERT_STATE_CQL),
+                            session.prepare(RESET_INBOX_UNREAD_CQL));
+                    statements = prepared;
+                }
+            }
+        }
+        return prepared;
+    }
+
+    private static final class PreparedStatements {
+        private final PreparedStatement selectState;
+        private final PreparedStatement deleteInboxRow;
+        private final PreparedStatement insertInboxRow;
+        private final PreparedStatement upsertState;
+        private final PreparedStatement resetInboxUnread;
+
+        private PreparedStatements(PreparedStatement selectState, PreparedStatement deleteInboxRow,
+                                   PreparedStatement insertInboxRow, PreparedStatement upsertState,
+                                   PreparedStatement resetInboxUnread) {
+            this.selectState = selectState;
+            this.deleteInboxRow = deleteInboxRow;
+            this.insertInboxRow = insertInboxRow;
+            this.upsertState = upsertState;
+            this.resetInboxUnread = resetInboxUnread;
+        }
+    }
+}
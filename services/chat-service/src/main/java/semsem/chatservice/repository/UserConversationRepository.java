@@ -0,0 +1,20 @@
+package semsem.chatservice.repository;
+
+import org.springframework.data.cassandra.repository.CassandraRepository;
+import org.springframework.data.cassandra.repository.Query;
+import org.springframework.stereotype.Repository;
+import semsem.chatservice.model.UserConversation;
+
+import java.util.List;
+
+@Repository
+public interface UserConversationRepository extends CassandraRepository<UserConversation, Long> {
+
+    // Cursor-based pagination: conversations whose last message is older than the given Snowflake ID
+    @Query("SELECT * FROM user_conversations WHERE user_id = ?0 AND last_message_id < ?1 LIMIT ?2")
+    List<UserConversation> findByUserIdBeforeLastMessageId(long userId, long beforeMessageId, int limit);
+
+    // Most recently active N conversations (first page, no cursor)
+    @Query("SELECT * FROM user_conversations WHERE user_id = ?0 LIMIT ?1")
+    List<UserConversation> findLatestByUserId(long userId, int limit);
+}
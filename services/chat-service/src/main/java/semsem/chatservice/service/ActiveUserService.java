@@ -1,14 +1,9 @@
 package semsem.chatservice.service;
 
 
-import lombok.extern.slf4j.Slf4j;
-import org.springframework.stereotype.Component;
 import semsem.chatservice.utils.OnlineUserVal;
 
-import java.util.ArrayList;
 import java.util.List;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentMap;
 
 
 public interface ActiveUserService {
@@ -17,6 +12,7 @@ public interface ActiveUserService {
 
      void userDisconnected(String sessionId) ;
 
+     boolean hasLocalSessions(String userId);
+
      List<OnlineUserVal> getAllActiveUsers();
 }
-
@@ -4,6 +4,7 @@ import semsem.chatservice.dto.request.GetConversationRequestDto;
 import semsem.chatservice.dto.request.NewPrivateChatMessageRequestDto;
 import semsem.chatservice.dto.request.NewPublicChatMessageRequestDto;
 import semsem.chatservice.dto.response.ChatMessageResponseDto;
+import semsem.chatservice.dto.response.CursorPageResponse;
 
 import java.util.List;
 
@@ -12,5 +13,5 @@ public interface ChatMessageService {
 
     ChatMessageResponseDto savePrivateMessage(NewPrivateChatMessageRequestDto requestDto, String token, Long authenticatedUserId);
 
-    List<ChatMessageResponseDto> getConversations(String senderId, String receiverId);
+    CursorPageResponse<ChatMessageResponseDto> getConversations(String senderId, String receiverId, Long before, int size);
 }
@@ -0,0 +1,11 @@
+package semsem.chatservice.service;
+
+import semsem.chatservice.dto.response.CursorPageResponse;
+import semsem.chatservice.dto.response.InboxConversationResponseDto;
+
+public interface ConversationInboxService {
+
+    CursorPageResponse<InboxConversationResponseDto> getInbox(Long userId, Long cursor, int size);
+
+    void markAsRead(Long userId, String conversationId);
+}
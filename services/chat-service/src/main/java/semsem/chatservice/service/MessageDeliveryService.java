@@ -0,0 +1,11 @@
+package semsem.chatservice.service;
+
+import java.util.Map;
+
+public interface MessageDeliveryService {
+    void deliverToUser(String userId, String destination, Object payload);
+
+    void deliverToUsers(String destination, Map<String, ?> payloadByUserId);
+
+    String deliveryChannelFor(String instanceId);
+}
@@ -0,0 +1,18 @@
+package semsem.chatservice.service;
+
+import semsem.chatservice.dto.response.OnlineUserStatusResponseDto;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+public interface PresenceSubscriptionService {
+
+    void subscribe(String sessionId, String watcherUserId, Collection<String> watchedUserIds);
+
+    void unsubscribe(String sessionId);
+
+    Map<String, List<OnlineUserStatusResponseDto>> friendChangesByRecipient(List<OnlineUserStatusResponseDto> changes);
+
+    Map<String, List<OnlineUserStatusResponseDto>> watcherChangesByRecipient(List<OnlineUserStatusResponseDto> changes);
+}
@@ -1,36 +1,228 @@
 package semsem.chatservice.service.impl;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
+import semsem.chatservice.dto.response.OnlineUserStatusResponseDto;
+import semsem.chatservice.listener.PresenceBroadcastListener;
+import semsem.chatservice.repository.RedisOnlineUserRepository;
+import semsem.chatservice.repository.RedisUserInstanceRepository;
 import semsem.chatservice.service.ActiveUserService;
+import semsem.chatservice.service.MessageDeliveryService;
+import semsem.chatservice.service.PresenceSubscriptionService;
 import semsem.chatservice.utils.OnlineUserVal;
 
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 
+/**
+ * Presence for the WebSocket sessions held by this instance.
+ * Sessions are registered in Redis (see {@link RedisOnlineUserRepository}) so a user stays online until
+ * the last of their sessions on any instance goes away, and are kept alive by periodic heartbeats.
+ * Online/offline transitions are buffered per user and published once per broadcast interval, so a
+ * reconnect storm produces at most one status change per user instead of an offline/online pair.
+ * The instance that observed a change resolves the online friends to notify and routes their deltas
+ * through the instance registry; the shared presence channel only serves explicit watch lists.
+ */
 @Slf4j
 @Component
+@RequiredArgsConstructor
 public class ActiveUserServiceImpl implements ActiveUserService {
     private final ConcurrentMap<String, OnlineUserVal> activeUsers = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Integer> localSessionCounts = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, PendingStatus> pendingStatusChanges = new ConcurrentHashMap<>();
+
+    private final RedisOnlineUserRepository redisOnlineUserRepository;
+    private final RedisUserInstanceRepository redisUserInstanceRepository;
+    private final PresenceSubscriptionService presenceSubscriptionService;
+    private final MessageDeliveryService messageDeliveryService;
+    private final StringRedisTemplate stringRedisTemplate;
+    private final ObjectMapper objectMapper;
+
+    @Value("${chat.presence.session-ttl:90s}")
+    private Duration sessionTtl;
+
+    @Value("${chat.presence.sweep-interval-ms:60000}")
+    private long sweepIntervalMs;
+
+    @Value("${chat.presence.batch-size:500}")
+    private int batchSize;
+
+    @Value("${chat.instance-id:default-instance}")
+    private String instanceId;
 
     @Override
     public void userConnected(String sessionId, OnlineUserVal user) {
-
         activeUsers.put(sessionId, user);
-         log.info("User connected: sessionId={}, username={}", sessionId, user.getUsername());
+        localSessionCounts.merge(user.getUserId(), 1, Integer::sum);
+
+        try {
+            if (redisOnlineUserRepository.addSession(user.getUserId(), sessionId, sessionTtl)) {
+                markStatusChanged(user.getUserId(), true);
+            }
+        } catch (Exception e) {
+            log.error("Error registering session in Redis: sessionId={}, error={}", sessionId, e.getMessage(), e);
+        }
+        log.info("User connected: sessionId={}, userId={}", sessionId, user.getUserId());
     }
 
     @Override
     public void userDisconnected(String sessionId) {
-        activeUsers.remove(sessionId);
-         log.info("User disconnected: sessionId={}", sessionId);
+        OnlineUserVal user = activeUsers.remove(sessionId);
+        if (user == null) {
+            return; // already handled (disconnect events may be delivered more than once)
+        }
+        localSessionCounts.computeIfPresent(user.getUserId(), (userId, count) -> count > 1 ? count - 1 : null);
+
+        try {
+            if (redisOnlineUserRepository.removeSession(user.getUserId(), sessionId)) {
+                markStatusChanged(user.getUserId(), false);
+            }
+        } catch (Exception e) {
+            log.error("Error removing session from Redis: sessionId={}, error={}", sessionId, e.getMessage(), e);
+        }
+        log.info("User disconnected: sessionId={}, userId={}", sessionId, user.getUserId());
     }
 
+    @Override
+    public boolean hasLocalSessions(String userId) {
+        return localSessionCounts.containsKey(userId);
+    }
+
+    /**
+     * Sessions connected to this instance only; cluster-wide presence lives in Redis
+     */
     @Override
     public List<OnlineUserVal> getAllActiveUsers() {
-        log.info("Active users: {}", activeUsers.values());
         return new ArrayList<>(activeUsers.values());
     }
+
+    /**
+     * Push the expiry of every local session forward, a batch of sessions per Redis call,
+     * and extend this instance's delivery registrations for the users it serves
+     */
+    @Scheduled(fixedDelayString = "${chat.presence.heartbeat-interval-ms:30000}")
+    public void heartbeat() {
+        Map<String, String> batch = new HashMap<>();
+        for (Map.Entry<String, OnlineUserVal> entry : activeUsers.entrySet()) {
+            batch.put(entry.getKey(), entry.getValue().getUserId());
+            if (batch.size() == batchSize) {
+                refreshSessions(batch);
+                batch = new HashMap<>();
+            }
+        }
+        refreshSessions(batch);
+
+        List<String> users = new ArrayList<>(batchSize);
+        for (String userId : localSessionCounts.keySet()) {
+            users.add(userId);
+            if (users.size() == batchSize) {
+                refreshRegistrations(users);
+                users = new ArrayList<>(batchSize);
+            }
+        }
+        refreshRegistrations(users);
+    }
+
+    /**
+     * Drop sessions whose instance stopped heartbeating (e.g. crashed) and mark their users offline
+     */
+    @Scheduled(fixedDelayString = "${chat.presence.sweep-interval-ms:60000}")
+    public void sweepExpiredSessions() {
+        try {
+            redisOnlineUserRepository.sweepExpiredSessions(batchSize, Duration.ofMillis(sweepIntervalMs))
+                    .forEach(userId -> markStatusChanged(userId, false));
+        } catch (Exception e) {
+            log.error("Error sweeping expired sessions: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Publish the net status change of every user touched since the last flush, as one message
+     */
+    @Scheduled(fixedDelayString = "${chat.presence.broadcast-interval-ms:250}")
+    public void flushStatusChanges() {
+        if (pendingStatusChanges.isEmpty()) {
+            return;
+        }
+
+        List<OnlineUserStatusResponseDto> changes = new ArrayList<>();
+        for (String userId : pendingStatusChanges.keySet()) {
+            PendingStatus status = pendingStatusChanges.remove(userId);
+            if (status != null && status.before != status.after) {
+                changes.add(OnlineUserStatusResponseDto.builder()
+                        .userId(Long.valueOf(userId))
+                        .isOnline(status.after)
+                        .build());
+            }
+        }
+        if (changes.isEmpty()) {
+            return;
+        }
+
+        try {
+            stringRedisTemplate.convertAndSend(PresenceBroadcastListener.PRESENCE_CHANNEL,
+                    objectMapper.writeValueAsString(changes));
+            log.debug("Published {} presence changes", changes.size());
+        } catch (Exception e) {
+            log.error("Failed to publish presence changes: {}", e.getMessage(), e);
+        }
+
+        try {
+            messageDeliveryService.deliverToUsers("/queue/online-friends-diff",
+                    presenceSubscriptionService.friendChangesByRecipient(changes));
+        } catch (Exception e) {
+            log.error("Failed to deliver presence changes to friends: {}", e.getMessage(), e);
+        }
+    }
+
+    private void refreshSessions(Map<String, String> sessionUserIds) {
+        if (sessionUserIds.isEmpty()) {
+            return;
+        }
+        try {
+            redisOnlineUserRepository.refreshSessions(sessionUserIds, sessionTtl)
+                    .forEach(userId -> markStatusChanged(userId, true));
+        } catch (Exception e) {
+            log.error("Error refreshing {} sessions in Redis: {}", sessionUserIds.size(), e.getMessage(), e);
+        }
+    }
+
+    private void refreshRegistrations(List<String> userIds) {
+        if (userIds.isEmpty()) {
+            return;
+        }
+        try {
+            redisUserInstanceRepository.register(userIds, instanceId);
+        } catch (Exception e) {
+            log.error("Error refreshing {} delivery registrations in Redis: {}", userIds.size(), e.getMessage(), e);
+        }
+    }
+
+    private void markStatusChanged(String userId, boolean online) {
+        pendingStatusChanges.merge(userId, new PendingStatus(!online, online),
+                (pending, latest) -> new PendingStatus(pending.before, online));
+    }
+
+    /**
+     * Status a user had before the first change in the current broadcast window, and after the last one
+     */
+    private static final class PendingStatus {
+        private final boolean before;
+        private final boolean after;
+
+        private PendingStatus(boolean before, boolean after) {
+            this.before = before;
+            this.after = after;
+        }
+    }
 }
@@ -6,11 +6,14 @@ import org.springframework.stereotype.Service;
 import semsem.chatservice.dto.request.NewPrivateChatMessageRequestDto;
 import semsem.chatservice.dto.request.NewPublicChatMessageRequestDto;
 import semsem.chatservice.dto.response.ChatMessageResponseDto;
+import semsem.chatservice.dto.response.CursorPageResponse;
 import semsem.chatservice.enums.ConversationType;
 import semsem.chatservice.event.ChatMessageEvent;
 import semsem.chatservice.event.ChatMessageKafkaProducer;
 import semsem.chatservice.mapper.ChatMessageMapper;
 import semsem.chatservice.model.ChatMessage;
+import semsem.chatservice.model.ConversationMessage;
+import semsem.chatservice.repository.ConversationMessageRepository;
 import semsem.chatservice.repository.RedisChatMessageRepository;
 import semsem.chatservice.service.ChatMessageService;
 import semsem.chatservice.service.ChatRoomService;
@@ -18,20 +21,25 @@ import semsem.chatservice.service.FriendsService;
 import semsem.chatservice.utils.SnowflakeIdGenerator;
 
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.TreeMap;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class ChatMessageServiceImpl implements ChatMessageService {
 
+    private static final int MAX_HISTORY_PAGE_SIZE = 100;
+
     private final RedisChatMessageRepository redisChatMessageRepository;
     private final ChatMessageMapper chatMessageMapper;
     private final FriendsService friendsService;
     private final ChatRoomService chatRoomService;
     private final SnowflakeIdGenerator snowflakeIdGenerator;
     private final ChatMessageKafkaProducer kafkaProducer;
+    private final ConversationMessageRepository conversationMessageRepository;
 
     @Override
     public ChatMessageResponseDto saveMessage(NewPublicChatMessageRequestDto requestDto) {
@@ -75,13 +83,48 @@ public class ChatMessageServiceImpl implements ChatMessageService {
         return chatMessageMapper.mapChatMessageToResponseDto(chatMessage);
     }
 
+    /**
+     * One page of history, newest first, strictly older than {@code before} when given.
+     * The newest messages come from the Redis hot tail (which also holds messages still on their way
+     * to Cassandra); whatever the tail cannot cover is read from Cassandra in a single partition slice.
+     */
     @Override
-    public List<ChatMessageResponseDto> getConversations(String senderId, String receiverId) {
+    public CursorPageResponse<ChatMessageResponseDto> getConversations(String senderId, String receiverId,
+                                                                       Long before, int requestedSize) {
         String conversationId = chatRoomService.createChatId(senderId, receiverId);
-        List<ChatMessage> messages = redisChatMessageRepository.getMessagesByChatId(conversationId);
-        return messages.stream()
-                .map(chatMessageMapper::mapChatMessageToResponseDto)
-                .collect(Collectors.toList());
+        int size = Math.min(Math.max(requestedSize, 1), MAX_HISTORY_PAGE_SIZE);
+        int wanted = size + 1; // one extra row tells whether another page exists
+
+        // the hot tail may hold the same message twice (send-path and consumer both write it)
+        TreeMap<Long, ChatMessageResponseDto> newestFirst = new TreeMap<>(Comparator.reverseOrder());
+        for (ChatMessage message : redisChatMessageRepository.getHotTail(conversationId)) {
+            if (before == null || message.getMessageId() < before) {
+                newestFirst.put(message.getMessageId(), chatMessageMapper.mapChatMessageToResponseDto(message));
+            }
+        }
+        while (newestFirst.size() > wanted) {
+            newestFirst.pollLastEntry();
+        }
+
+        if (newestFirst.size() < wanted) {
+            Long cassandraCursor = newestFirst.isEmpty() ? before : newestFirst.lastKey();
+            int remaining = wanted - newestFirst.size();
+            List<ConversationMessage> older = cassandraCursor != null
+                    ? conversationMessageRepository.findByConversationIdBeforeMessageId(conversationId, cassandraCursor, remaining)
+                    : conversationMessageRepository.findLatestByConversationId(conversationId, remaining);
+            older.forEach(message -> newestFirst.putIfAbsent(message.getMessageId(),
+                    chatMessageMapper.mapConversationMessageToResponseDto(message)));
+        }
+
+        List<ChatMessageResponseDto> messages = new ArrayList<>(newestFirst.values());
+        boolean hasMore = messages.size() > size;
+        if (hasMore) {
+            messages = messages.subList(0, size);
+        }
+        Long nextCursor = hasMore ? messages.get(messages.size() - 1).getId() : null;
+
+        log.debug("History page for conversation={}: {} messages, hasMore={}", conversationId, messages.size(), hasMore);
+        return new CursorPageResponse<>(messages, nextCursor, hasMore);
     }
 
     private void publishToKafka(ChatMessage message, ConversationType type, String groupId) {
@@ -0,0 +1,76 @@
+package semsem.chatservice.service.impl;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import semsem.chatservice.dto.response.CursorPageResponse;
+import semsem.chatservice.dto.response.InboxConversationResponseDto;
+import semsem.chatservice.model.UserConversation;
+import semsem.chatservice.event.ChatMessageEvent;
+import semsem.chatservice.event.ChatMessageKafkaProducer;
+import semsem.chatservice.repository.UserConversationRepository;
+import semsem.chatservice.service.ConversationInboxService;
+import semsem.chatservice.utils.SnowflakeIdGenerator;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ConversationInboxServiceImpl implements ConversationInboxService {
+
+    private static final int MAX_PAGE_SIZE = 100;
+
+    private final UserConversationRepository userConversationRepository;
+    private final ChatMessageKafkaProducer chatMessageKafkaProducer;
+    private final SnowflakeIdGenerator snowflakeIdGenerator;
+
+    /**
+     * One slice of a single user_conversations partition, newest conversation first.
+     */
+    @Override
+    public CursorPageResponse<InboxConversationResponseDto> getInbox(Long userId, Long cursor, int requestedSize) {
+        int size = Math.min(Math.max(requestedSize, 1), MAX_PAGE_SIZE);
+        List<UserConversation> rows = cursor != null
+                ? userConversationRepository.findByUserIdBeforeLastMessageId(userId, cursor, size + 1)
+                : userConversationRepository.findLatestByUserId(userId, size + 1);
+
+        boolean hasMore = rows.size() > size;
+        List<UserConversation> page = hasMore ? rows.subList(0, size) : rows;
+        Long nextCursor = hasMore ? page.get(page.size() - 1).getLastMessageId() : null;
+
+        List<InboxConversationResponseDto> conversations = page.stream()
+                .map(this::toResponseDto)
+                .collect(Collectors.toList());
+
+        log.debug("Inbox page for userId={}: {} conversations, hasMore={}", userId, conversations.size(), hasMore);
+        return new CursorPageResponse<>(conversations, nextCursor, hasMore);
+    }
+
+    /**
+     * Published as a read marker on the conversation's partition rather than written here, so the reset is
+     * applied in order with the messages by the persistence consumer, the only writer of the inbox.
+     */
+    @Override
+    public void markAsRead(Long userId, String conversationId) {
+        chatMessageKafkaProducer.publish(ChatMessageEvent.builder()
+                .messageId(snowflakeIdGenerator.nextId())
+                .conversationId(conversationId)
+                .senderId(String.valueOf(userId))
+                .createdAtEpochMs(System.currentTimeMillis())
+                .readMarker(true)
+                .build());
+    }
+
+    private InboxConversationResponseDto toResponseDto(UserConversation row) {
+        return InboxConversationResponseDto.builder()
+                .conversationId(row.getConversationId())
+                .conversationType(row.getConversationType())
+                .conversationName(row.getConversationName())
+                .lastMessageId(row.getLastMessageId())
+                .lastMessagePreview(row.getLastMessagePreview())
+                .unreadCount(row.getUnreadCount())
+                .build();
+    }
+}
@@ -4,6 +4,7 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.stereotype.Service;
+import semsem.chatservice.cache.FriendIdsCache;
 import semsem.chatservice.client.MainServiceClient;
 import semsem.chatservice.dto.response.AppUserForChatDto;
 import com.app.shared.security.dto.MyApiResponse;
@@ -15,6 +16,7 @@ import semsem.chatservice.service.FriendsService;
 public class FriendsServiceImpl implements FriendsService {
 
     private final MainServiceClient mainServiceClient;
+    private final FriendIdsCache friendIdsCache;
 
     @Override
     public Page<AppUserForChatDto> getFriendsPaginated(String token, int page, int size) {
@@ -42,26 +44,14 @@ public class FriendsServiceImpl implements FriendsService {
         }
     }
 
+    /**
+     * Answered from the local friend id cache (a binary search); only a cache miss goes to main-service.
+     * The token is no longer needed: the cache loads through main-service's internal API.
+     */
     @Override
     public boolean areFriends(String token, Long userId1, Long userId2) {
-        try {
-            log.info("Checking friendship between userId1={} and userId2={}", userId1, userId2);
-
-//            // Call main-service to check friendship status
-//            MyApiResponse<Boolean> response = mainServiceClient.areFriends(token, userId1, userId2);
-//
-//            if (response.isSuccess()) {
-//                boolean areFriends = response.getData() != null && response.getData();
-//                log.debug("Friendship check result: {}", areFriends);
-//                return areFriends;
-//            } else {
-//                log.error("Failed to check friendship status: {}", response.getMessage());
-//                return false;
-//            }
-            return true; // TODO: Temporarily bypassing friendship check
-        } catch (Exception e) {
-            log.error("Error calling main-service to check friendship: {}", e.getMessage(), e);
-            return false;
-        }
+        boolean areFriends = friendIdsCache.areFriends(userId1, userId2);
+        log.debug("Friendship check between userId1={} and userId2={}: {}", userId1, userId2, areFriends);
+        return areFriends;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,110 @@
+package semsem.chatservice.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Service;
+import semsem.chatservice.event.UserDeliveryEvent;
+import semsem.chatservice.repository.RedisUserInstanceRepository;
+import semsem.chatservice.service.MessageDeliveryService;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Routes user-destined messages to every Chat Service instance that holds one of the user's WebSockets.
+ * Sessions on this instance are served straight from the in-memory broker; sessions on another node get
+ * the message through that node's Redis channel ({@code chat:deliver:{instanceId}}).
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class MessageDeliveryServiceImpl implements MessageDeliveryService {
+
+    private static final String DELIVERY_CHANNEL_PREFIX = "chat:deliver:";
+
+    private final SimpMessagingTemplate simpMessagingTemplate;
+    private final RedisUserInstanceRepository redisUserInstanceRepository;
+    private final StringRedisTemplate stringRedisTemplate;
+    private final ObjectMapper objectMapper;
+
+    @Value("${chat.instance-id:default-instance}")
+    private String instanceId;
+
+    @Override
+    public void deliverToUser(String userId, String destination, Object payload) {
+        Set<String> targetInstances = redisUserInstanceRepository.findInstances(userId);
+
+        // no registration means the user is offline (or the registry write failed) — try locally, it is free
+        if (targetInstances.isEmpty() || targetInstances.contains(instanceId)) {
+            simpMessagingTemplate.convertAndSendToUser(userId, destination, payload);
+        }
+
+        List<UserDeliveryEvent> events = null;
+        for (String targetInstance : targetInstances) {
+            if (targetInstance.equals(instanceId)) {
+                continue;
+            }
+            if (events == null) {
+                events = List.of(UserDeliveryEvent.builder()
+                        .userId(userId)
+                        .destination(destination)
+                        .payload(objectMapper.valueToTree(payload))
+                        .build());
+            }
+            publish(targetInstance, events);
+        }
+    }
+
+    /**
+     * Deliver a different payload to each user, resolving their instances in one registry round trip
+     * and sending each remote instance a single message for all of its recipients
+     */
+    @Override
+    public void deliverToUsers(String destination, Map<String, ?> payloadByUserId) {
+        if (payloadByUserId.isEmpty()) {
+            return;
+        }
+        Map<String, Set<String>> instancesByUserId =
+                redisUserInstanceRepository.findInstances(new ArrayList<>(payloadByUserId.keySet()));
+
+        Map<String, List<UserDeliveryEvent>> eventsByInstance = new HashMap<>();
+        payloadByUserId.forEach((userId, payload) -> {
+            Set<String> targetInstances = instancesByUserId.getOrDefault(userId, Set.of());
+            if (targetInstances.isEmpty() || targetInstances.contains(instanceId)) {
+                simpMessagingTemplate.convertAndSendToUser(userId, destination, payload);
+            }
+            for (String targetInstance : targetInstances) {
+                if (!targetInstance.equals(instanceId)) {
+                    eventsByInstance.computeIfAbsent(targetInstance, id -> new ArrayList<>())
+                            .add(UserDeliveryEvent.builder()
+                                    .userId(userId)
+                                    .destination(destination)
+                                    .payload(objectMapper.valueToTree(payload))
+                                    .build());
+                }
+            }
+        });
+        eventsByInstance.forEach(this::publish);
+    }
+
+    private void publish(String targetInstance, List<UserDeliveryEvent> events) {
+        try {
+            stringRedisTemplate.convertAndSend(deliveryChannelFor(targetInstance), objectMapper.writeValueAsString(events));
+            log.debug("Routed {} deliveries to instance={}", events.size(), targetInstance);
+        } catch (Exception e) {
+            log.error("Failed to route {} deliveries to instance={}: {}", events.size(), targetInstance, e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public String deliveryChannelFor(String instanceId) {
+        return DELIVERY_CHANNEL_PREFIX + instanceId;
+    }
+}
@@ -0,0 +1,128 @@
+package semsem.chatservice.service.impl;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import semsem.chatservice.cache.FriendIdsCache;
+import semsem.chatservice.dto.response.OnlineUserStatusResponseDto;
+import semsem.chatservice.repository.RedisOnlineUserRepository;
+import semsem.chatservice.service.PresenceSubscriptionService;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Decides which users receive a presence change.
+ * By default a change goes to the changed user's online friends, resolved once by the instance that
+ * observed the change; a session may also subscribe an explicit watch list (e.g. the ids shown in its
+ * sidebar). Watch lists are kept in memory, so each instance picks its own watchers out of the changes.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class PresenceSubscriptionServiceImpl implements PresenceSubscriptionService {
+
+    private static final int ONLINE_FILTER_CHUNK_SIZE = 1000;
+
+    private final FriendIdsCache friendIdsCache;
+    private final RedisOnlineUserRepository redisOnlineUserRepository;
+
+    // sessionId -> the subscription of that session
+    private final ConcurrentMap<String, Subscription> subscriptionsBySession = new ConcurrentHashMap<>();
+    // watched userId -> sessions watching it
+    private final ConcurrentMap<String, Set<String>> watchingSessions = new ConcurrentHashMap<>();
+
+    @Override
+    public void subscribe(String sessionId, String watcherUserId, Collection<String> watchedUserIds) {
+        unsubscribe(sessionId); // a new list replaces the previous one
+
+        Subscription subscription = new Subscription(watcherUserId, Set.copyOf(watchedUserIds));
+        subscriptionsBySession.put(sessionId, subscription);
+        subscription.watchedUserIds.forEach(watchedUserId ->
+                watchingSessions.computeIfAbsent(watchedUserId, id -> ConcurrentHashMap.newKeySet()).add(sessionId));
+
+        log.debug("Session {} of user {} watches presence of {} users", sessionId, watcherUserId, watchedUserIds.size());
+    }
+
+    @Override
+    public void unsubscribe(String sessionId) {
+        Subscription subscription = subscriptionsBySession.remove(sessionId);
+        if (subscription == null) {
+            return;
+        }
+        subscription.watchedUserIds.forEach(watchedUserId ->
+                watchingSessions.computeIfPresent(watchedUserId, (id, sessions) -> {
+                    sessions.remove(sessionId);
+                    return sessions.isEmpty() ? null : sessions;
+                }));
+    }
+
+    /**
+     * Group presence changes by the online friends of the changed users, cluster-wide.
+     * Offline friends are dropped with one SMISMEMBER round trip per chunk of candidates.
+     */
+    @Override
+    public Map<String, List<OnlineUserStatusResponseDto>> friendChangesByRecipient(List<OnlineUserStatusResponseDto> changes) {
+        Map<String, Set<OnlineUserStatusResponseDto>> byFriend = new HashMap<>();
+        for (OnlineUserStatusResponseDto change : changes) {
+            for (long friendId : friendIdsCache.getFriendIds(change.getUserId())) {
+                byFriend.computeIfAbsent(String.valueOf(friendId), id -> new LinkedHashSet<>()).add(change);
+            }
+        }
+
+        Map<String, Set<OnlineUserStatusResponseDto>> byRecipient = new HashMap<>();
+        List<String> candidates = new ArrayList<>(byFriend.keySet());
+        for (int from = 0; from < candidates.size(); from += ONLINE_FILTER_CHUNK_SIZE) {
+            List<String> chunk = candidates.subList(from, Math.min(from + ONLINE_FILTER_CHUNK_SIZE, candidates.size()));
+            for (String recipient : redisOnlineUserRepository.filterOnlineUsers(chunk)) {
+                byRecipient.put(recipient, byFriend.get(recipient));
+            }
+        }
+        return toDeltas(byRecipient);
+    }
+
+    /**
+     * Group presence changes by the local users whose sessions explicitly watch the changed users.
+     * A recipient with several sessions appears once; user destinations reach all of its sessions.
+     */
+    @Override
+    public Map<String, List<OnlineUserStatusResponseDto>> watcherChangesByRecipient(List<OnlineUserStatusResponseDto> changes) {
+        Map<String, Set<OnlineUserStatusResponseDto>> byRecipient = new HashMap<>();
+        for (OnlineUserStatusResponseDto change : changes) {
+            Set<String> sessions = watchingSessions.get(String.valueOf(change.getUserId()));
+            if (sessions == null) {
+                continue;
+            }
+            for (String sessionId : sessions) {
+                Subscription subscription = subscriptionsBySession.get(sessionId);
+                if (subscription != null) {
+                    byRecipient.computeIfAbsent(subscription.watcherUserId, id -> new LinkedHashSet<>()).add(change);
+                }
+            }
+        }
+        return toDeltas(byRecipient);
+    }
+
+    private Map<String, List<OnlineUserStatusResponseDto>> toDeltas(Map<String, Set<OnlineUserStatusResponseDto>> byRecipient) {
+        Map<String, List<OnlineUserStatusResponseDto>> deltas = new HashMap<>(byRecipient.size());
+        byRecipient.forEach((recipient, recipientChanges) -> deltas.put(recipient, new ArrayList<>(recipientChanges)));
+        return deltas;
+    }
+
+    private static final class Subscription {
+        private final String watcherUserId;
+        private final Set<String> watchedUserIds;
+
+        private Subscription(String watcherUserId, Set<String> watchedUserIds) {
+            this.watcherUserId = watcherUserId;
+            this.watchedUserIds = watchedUserIds;
+        }
+    }
+}
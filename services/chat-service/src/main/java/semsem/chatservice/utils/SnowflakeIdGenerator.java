@@ -2,6 +2,8 @@ package semsem.chatservice.utils;
 
 import lombok.extern.slf4j.Slf4j;
 
+import java.util.concurrent.atomic.AtomicLong;
+
 /**
  * Twitter-style Snowflake ID: 64 bits
  *
@@ -9,6 +11,11 @@ import lombok.extern.slf4j.Slf4j;
  *
  * 32 datacenters × 32 machines = 1024 unique instances
  * 4096 IDs/ms/instance — good for ~69 years from custom epoch
+ *
+ * Lock-free: the last issued (timestamp, sequence) pair is packed into one AtomicLong and advanced by CAS.
+ * When the sequence of a millisecond is exhausted, or the clock moves backwards, the packed value is simply
+ * incremented — the sequence carries into the timestamp bits, so IDs stay unique and increasing and the
+ * generator briefly runs ahead of the wall clock instead of spinning until it catches up.
  */
 @Slf4j
 public class SnowflakeIdGenerator {
@@ -29,8 +36,8 @@ public class SnowflakeIdGenerator {
     private final long datacenterId;
     private final long machineId;
 
-    private long lastTimestamp = -1L;
-    private long sequence      = 0L;
+    // (ms since epoch << SEQUENCE_BITS) | sequence of the last issued ID
+    private final AtomicLong lastTimestampAndSequence = new AtomicLong();
 
     public SnowflakeIdGenerator(long datacenterId, long machineId, long epoch) {
         if (datacenterId < 0 || datacenterId > MAX_DATACENTER_ID)
@@ -44,41 +51,30 @@ public class SnowflakeIdGenerator {
         log.info("SnowflakeIdGenerator ready: datacenterId={}, machineId={}", datacenterId, machineId);
     }
 
-    public synchronized long nextId() {
-        long now = currentTimeMillis();
-
-        if (now < lastTimestamp) {
-            log.warn("Clock moved backwards {}ms — waiting to recover", lastTimestamp - now);
-            now = waitForNextMillis(lastTimestamp);
-        }
-
-        if (now == lastTimestamp) {
-            sequence = (sequence + 1) & SEQUENCE_MASK;
-            if (sequence == 0) {
-                now = waitForNextMillis(lastTimestamp);
+    public long nextId() {
+        long next;
+        while (true) {
+            long last = lastTimestampAndSequence.get();
+            long now = currentTimeMillis() - epoch;
+
+            // new millisecond: sequence restarts at 0; same millisecond, exhausted sequence or clock moved backwards:
+            // take the next slot after the last issued one
+            next = now > (last >>> SEQUENCE_BITS) ? now << SEQUENCE_BITS : last + 1;
+            if (lastTimestampAndSequence.compareAndSet(last, next)) {
+                break;
             }
-        } else {
-            sequence = 0L;
         }
 
-        lastTimestamp = now;
-
-        return ((now - epoch)    << TIMESTAMP_SHIFT)
+        return ((next >>> SEQUENCE_BITS) << TIMESTAMP_SHIFT)
                 | (datacenterId  << DATACENTER_ID_SHIFT)
                 | (machineId     << MACHINE_ID_SHIFT)
-                | sequence;
+                | (next & SEQUENCE_MASK);
     }
 
     public long extractTimestamp(long snowflakeId) {
         return (snowflakeId >> TIMESTAMP_SHIFT) + epoch;
     }
 
-    private long waitForNextMillis(long lastMs) {
-        long ms = currentTimeMillis();
-        while (ms <= lastMs) ms = currentTimeMillis();
-        return ms;
-    }
-
     private long currentTimeMillis() {
         return System.currentTimeMillis();
     }
@@ -0,0 +1,9 @@
+-- Registers one WebSocket session for a user and marks the user online.
+-- KEYS[1] = user's session ZSET (member = sessionId, score = expiry epoch ms), KEYS[2] = online users SET
+-- ARGV[1] = session id, ARGV[2] = session expiry (epoch ms), ARGV[3] = now (epoch ms),
+-- ARGV[4] = user id, ARGV[5] = session ZSET ttl (seconds)
+-- Returns 1 when the user went from offline to online, 0 otherwise.
+redis.call('ZREMRANGEBYSCORE', KEYS[1], '-inf', ARGV[3])
+redis.call('ZADD', KEYS[1], ARGV[2], ARGV[1])
+redis.call('EXPIRE', KEYS[1], ARGV[5])
+return redis.call('SADD', KEYS[2], ARGV[4])
@@ -0,0 +1,16 @@
+-- Pushes the expiry of every session held by one instance forward in a single call.
+-- KEYS[1] = online users SET, KEYS[2..n] = session ZSET of each heartbeated session
+-- ARGV[1] = new session expiry (epoch ms), ARGV[2] = session ZSET ttl (seconds),
+-- then one (user id, session id) pair per session ZSET, in KEYS order
+-- Returns the user ids that were not marked online (e.g. swept while this instance stalled).
+local revived = {}
+for i = 2, #KEYS do
+    local userId = ARGV[(i - 1) * 2 + 1]
+    local sessionId = ARGV[(i - 1) * 2 + 2]
+    redis.call('ZADD', KEYS[i], ARGV[1], sessionId)
+    redis.call('EXPIRE', KEYS[i], ARGV[2])
+    if redis.call('SADD', KEYS[1], userId) == 1 then
+        table.insert(revived, userId)
+    end
+end
+return revived
@@ -0,0 +1,11 @@
+-- Removes one WebSocket session; the user goes offline only when no live session is left.
+-- KEYS[1] = user's session ZSET, KEYS[2] = online users SET
+-- ARGV[1] = session id, ARGV[2] = now (epoch ms), ARGV[3] = user id
+-- Returns 1 when the user went from online to offline, 0 otherwise.
+redis.call('ZREM', KEYS[1], ARGV[1])
+redis.call('ZREMRANGEBYSCORE', KEYS[1], '-inf', ARGV[2])
+if redis.call('ZCARD', KEYS[1]) == 0 then
+    redis.call('DEL', KEYS[1])
+    return redis.call('SREM', KEYS[2], ARGV[3])
+end
+return 0
@@ -0,0 +1,15 @@
+-- Drops expired sessions (e.g. left behind by a crashed instance) and takes users
+-- without a live session out of the online set.
+-- KEYS[1] = online users SET, KEYS[2..n] = session ZSET per checked user
+-- ARGV[1] = now (epoch ms), then one user id per session ZSET, in KEYS order
+-- Returns the user ids that went offline.
+local offline = {}
+for i = 2, #KEYS do
+    redis.call('ZREMRANGEBYSCORE', KEYS[i], '-inf', ARGV[1])
+    if redis.call('ZCARD', KEYS[i]) == 0 then
+        if redis.call('SREM', KEYS[1], ARGV[i]) == 1 then
+            table.insert(offline, ARGV[i])
+        end
+    end
+end
+return offline
@@ -0,0 +1,46 @@
+package com.app.server.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Component
+@ConfigurationProperties(prefix = "feed")
+@Data
+public class FeedProperties {
+    private int maxSize = 500; // max post ids kept per feed ZSET
+    private Duration activityDedupeWindow = Duration.ofMinutes(10); // repeated activity by one actor on one post is fanned out once
+    private Fanout fanout = new Fanout();
+    private Hybrid hybrid = new Hybrid();
+    private PostCache postCache = new PostCache();
+    private FriendGraph friendGraph = new FriendGraph();
+
+    @Data
+    public static class Fanout {
+        private int chunkSize = 500;   // feed keys written per pipelined round trip
+        private int concurrency = 4;   // chunks written in parallel per fan-out
+    }
+
+    @Data
+    public static class Hybrid {
+        private boolean enabled = true;
+        private int celebrityFriendThreshold = 1000; // authors at or above this are pulled at read time
+    }
+
+    @Data
+    public static class PostCache {
+        private long localMaxSize = 10_000;                  // on-heap (Caffeine) entries per instance
+        private Duration localTtl = Duration.ofSeconds(30);  // bounds staleness between instances
+        private Duration redisTtl = Duration.ofHours(1);
+    }
+
+    @Data
+    public static class FriendGraph {
+        private long maxFriendIds = 20_000_000;              // total cached friend ids per instance (~8 bytes each)
+        private Duration ttl = Duration.ofMinutes(30);       // safety net for updates missed by the event stream
+        private int suggestionLimit = 10;
+        private int maxSuggestionEdges = 2_000_000;          // friend-of-friend ids scanned per suggestion request
+    }
+}
@@ -2,12 +2,15 @@ package com.app.server.controller;
 
 
 import com.app.server.controller.swagger.IFriendshipApi;
+import com.app.server.dto.request.friendship.GetFriendsCursorRequestDto;
 import com.app.server.dto.response.AppUserResponseDto;
+import com.app.server.dto.response.FriendCursorPageResponseDto;
 import com.app.server.model.UserProfile;
 import com.app.server.repository.UserProfileRepository;
 import com.app.server.service.FriendshipService;
 import com.app.shared.security.dto.MyApiResponse;
 import com.app.shared.security.utils.SecurityUtils;
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
@@ -151,5 +154,15 @@ public class FriendshipController implements IFriendshipApi {
         return ResponseEntity.ok(MyApiResponse.success( "Friends retrieved",friends));
     }
 
+    @Override
+    @GetMapping("/get-friends-cursor")
+    public ResponseEntity<MyApiResponse<FriendCursorPageResponseDto>> getFriendsByCursor(
+            @Valid @ModelAttribute GetFriendsCursorRequestDto requestDto
+    ) {
+        Long currentUserId = SecurityUtils.getCurrentUserId();
+        FriendCursorPageResponseDto friends = friendshipService.getFriendsByCursor(currentUserId, requestDto);
+        return ResponseEntity.ok(MyApiResponse.success("Friends retrieved", friends));
+    }
+
 
 }
\ No newline at end of file
@@ -2,8 +2,10 @@ package com.app.server.controller;
 
 import com.app.server.controller.swagger.IPostApi;
 import com.app.server.dto.request.post.CreatePostRequestDto;
+import com.app.server.dto.request.post.GetPostsCursorRequestDto;
 import com.app.server.dto.request.post.GetRecentPostsRequestDto;
 import com.app.server.dto.request.post.UpdatePostRequestDto;
+import com.app.server.dto.response.PostCursorPageResponseDto;
 import com.app.server.dto.response.PostResponseDto;
 import com.app.server.model.Post;
 import com.app.server.service.PostService;
@@ -49,6 +51,17 @@ public class PostController implements IPostApi {
         return ResponseEntity.ok(MyApiResponse.success("All posts retrieved successfully", posts));
     }
 
+    @Override
+    @GetMapping("/recent/cursor")
+    @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
+    public ResponseEntity<MyApiResponse<PostCursorPageResponseDto>> recentPostsByCursor(
+            @Valid @ModelAttribute GetPostsCursorRequestDto req
+    ){
+        Long currentUserId = SecurityUtils.getCurrentUserId();
+        PostCursorPageResponseDto page = postService.getRecentPostsByCursor(currentUserId, req);
+        return ResponseEntity.ok(MyApiResponse.success("All posts retrieved successfully", page));
+    }
+
     @Override
     @DeleteMapping("/delete/{postId}")
     @PreAuthorize("hasRole('ADMIN') or @postService.isPostOwner(#postId, authentication.details.userId)")
@@ -2,8 +2,10 @@ package com.app.server.controller;
 
 
 import com.app.server.controller.swagger.IProfileApi;
+import com.app.server.dto.request.post.GetPostsCursorRequestDto;
 import com.app.server.dto.request.post.GetRecentPostsRequestDto;
 import com.app.server.dto.request.profile.UpdateProfileBioRequestDto;
+import com.app.server.dto.response.PostCursorPageResponseDto;
 import com.app.server.dto.response.PostResponseDto;
 import com.app.server.dto.response.profile.ProfileResponseDto;
 import com.app.server.model.UserProfile;
@@ -73,4 +75,14 @@ public class ProfileController implements IProfileApi {
         return ResponseEntity.ok(MyApiResponse.success("Posts retrieved successfully", posts));
     }
 
+    @Override
+    @GetMapping("/posts/cursor")
+    public ResponseEntity<MyApiResponse<PostCursorPageResponseDto>> getMyPostsByCursor(
+            @ModelAttribute @Valid GetPostsCursorRequestDto requestDto
+    ){
+        UserProfile currentUser = getCurrentUserProfile();
+        PostCursorPageResponseDto page = profileService.getMyPostsByCursor(currentUser, requestDto);
+        return ResponseEntity.ok(MyApiResponse.success("Posts retrieved successfully", page));
+    }
+
 }
\ No newline at end of file
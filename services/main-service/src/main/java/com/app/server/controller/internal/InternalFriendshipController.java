@@ -1,12 +1,14 @@
 package com.app.server.controller.internal;
 
-import com.app.server.repository.FriendshipServiceRepository;
+import com.app.server.feed.FriendGraphCache;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.Arrays;
 import java.util.List;
+import java.util.stream.Collectors;
 
 /**
  * Internal API endpoints for inter-service communication
@@ -21,7 +23,7 @@ import java.util.List;
 @Slf4j
 public class InternalFriendshipController {
 
-    private final FriendshipServiceRepository friendshipServiceRepository;
+    private final FriendGraphCache friendGraphCache;
 
     /**
      * Get list of friend IDs for a given user
@@ -34,7 +36,9 @@ public class InternalFriendshipController {
     public ResponseEntity<List<Long>> getFriendIds(@PathVariable Long userId) {
         log.debug("Internal API: Fetching friend IDs for userId={}", userId);
 
-        List<Long> friendIds = friendshipServiceRepository.findAcceptedFriendIds(userId);
+        List<Long> friendIds = Arrays.stream(friendGraphCache.getFriendIds(userId))
+                .boxed()
+                .collect(Collectors.toList());
 
         log.debug("Internal API: Found {} friends for userId={}", friendIds.size(), userId);
 
@@ -1,6 +1,8 @@
 package com.app.server.controller.swagger;
 
+import com.app.server.dto.request.friendship.GetFriendsCursorRequestDto;
 import com.app.server.dto.response.AppUserResponseDto;
+import com.app.server.dto.response.FriendCursorPageResponseDto;
 import com.app.shared.security.dto.MyApiResponse;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -8,8 +10,10 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
 import org.springframework.data.domain.Page;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ModelAttribute;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestParam;
 
@@ -112,4 +116,15 @@ public interface IFriendshipApi {
     ResponseEntity<MyApiResponse<Page<AppUserResponseDto>>> getFriendsPaginated(
             @Parameter(description = "Page number (0-indexed)") @RequestParam(defaultValue = "0") int page,
             @Parameter(description = "Page size") @RequestParam(defaultValue = "20") int size);
+
+    @Operation(summary = "Get friends by cursor",
+            description = "Retrieve friends ordered by name using an opaque cursor, together with the total friend count. "
+                    + "Pass `nextCursor` from the previous page to continue.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Friends retrieved successfully"),
+            @ApiResponse(responseCode = "400", description = "Invalid cursor"),
+            @ApiResponse(responseCode = "401", description = "Unauthorized")
+    })
+    ResponseEntity<MyApiResponse<FriendCursorPageResponseDto>> getFriendsByCursor(
+            @Valid @ModelAttribute GetFriendsCursorRequestDto requestDto);
 }
\ No newline at end of file
@@ -1,8 +1,10 @@
 package com.app.server.controller.swagger;
 
 import com.app.server.dto.request.post.CreatePostRequestDto;
+import com.app.server.dto.request.post.GetPostsCursorRequestDto;
 import com.app.server.dto.request.post.GetRecentPostsRequestDto;
 import com.app.server.dto.request.post.UpdatePostRequestDto;
+import com.app.server.dto.response.PostCursorPageResponseDto;
 import com.app.server.dto.response.PostResponseDto;
 import com.app.shared.security.dto.MyApiResponse;
 import io.swagger.v3.oas.annotations.Operation;
@@ -45,6 +47,20 @@ public interface IPostApi {
     ResponseEntity<MyApiResponse<List<PostResponseDto>>> allPosts(
             @Valid @ModelAttribute GetRecentPostsRequestDto req);
 
+    @Operation(summary = "Get recent posts by cursor",
+            description = "Retrieve recent posts newest first using an opaque cursor. "
+                    + "Pass `nextCursor` from the previous page to continue; page cost does not grow with depth.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Posts retrieved successfully",
+                    content = @Content(schema = @Schema(implementation = MyApiResponse.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid cursor",
+                    content = @Content(schema = @Schema(implementation = MyApiResponse.class))),
+            @ApiResponse(responseCode = "401", description = "Unauthorized",
+                    content = @Content(schema = @Schema(implementation = MyApiResponse.class)))
+    })
+    ResponseEntity<MyApiResponse<PostCursorPageResponseDto>> recentPostsByCursor(
+            @Valid @ModelAttribute GetPostsCursorRequestDto req);
+
     @Operation(summary = "Delete a post", description = "Delete a post by ID (owner or admin only)")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Post deleted successfully",
@@ -1,7 +1,9 @@
 package com.app.server.controller.swagger;
 
+import com.app.server.dto.request.post.GetPostsCursorRequestDto;
 import com.app.server.dto.request.post.GetRecentPostsRequestDto;
 import com.app.server.dto.request.profile.UpdateProfileBioRequestDto;
+import com.app.server.dto.response.PostCursorPageResponseDto;
 import com.app.server.dto.response.profile.ProfileResponseDto;
 import com.app.shared.security.dto.MyApiResponse;
 import io.swagger.v3.oas.annotations.Operation;
@@ -50,4 +52,15 @@ public interface IProfileApi {
     })
     ResponseEntity<MyApiResponse<?>> getMyPosts(
             @ModelAttribute @Valid GetRecentPostsRequestDto requestDto);
+
+    @Operation(summary = "Get user's posts by cursor",
+            description = "Retrieve the current user's posts newest first using an opaque cursor. "
+                    + "Pass `nextCursor` from the previous page to continue.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Posts retrieved successfully"),
+            @ApiResponse(responseCode = "400", description = "Invalid cursor"),
+            @ApiResponse(responseCode = "401", description = "Unauthorized")
+    })
+    ResponseEntity<MyApiResponse<PostCursorPageResponseDto>> getMyPostsByCursor(
+            @ModelAttribute @Valid GetPostsCursorRequestDto requestDto);
 }
\ No newline at end of file
@@ -0,0 +1,27 @@
+package com.app.server.dto.request.friendship;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+@Data
+public class GetFriendsCursorRequestDto {
+
+    @Schema(
+            description = "Opaque cursor taken from `nextCursor` of the previous page. Omit for the first page.",
+            example = "NDI.QWxpY2U.U21pdGg"
+    )
+    private String cursor;
+
+    @NotNull(message = "Size must not be null")
+    @Min(value = 1, message = "Size must be greater than or equal to 1")
+    @Max(value = 100, message = "Size must be less than or equal to 100")
+    @Schema(
+            description = "Page size",
+            example = "20",
+            defaultValue = "20"
+    )
+    private Integer size = 20;
+}
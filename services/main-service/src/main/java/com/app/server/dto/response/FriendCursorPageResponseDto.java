@@ -0,0 +1,20 @@
+package com.app.server.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class FriendCursorPageResponseDto {
+
+    private List<AppUserResponseDto> friends;
+    private long totalCount;
+    private String nextCursor;
+    private boolean hasMore;
+}
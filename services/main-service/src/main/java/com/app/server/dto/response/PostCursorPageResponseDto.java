@@ -0,0 +1,19 @@
+package com.app.server.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class PostCursorPageResponseDto {
+
+    private List<PostResponseDto> posts;
+    private String nextCursor;
+    private boolean hasMore;
+}
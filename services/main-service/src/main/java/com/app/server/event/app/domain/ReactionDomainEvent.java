@@ -14,10 +14,11 @@ public class ReactionDomainEvent extends DomainEvent {
     private final Long targetId;
     private final Long reactorUserId;
     private final Long postId;
+    private final boolean replacedExisting; // ADDED that only switched the type of an existing reaction
 
     public ReactionDomainEvent(Long reactorUserId, ReactionActionType actionType,
                                ReactionType reactionType, ReactionTargetType targetType,
-                               Long targetId, Long postId) {
+                               Long targetId, Long postId, boolean replacedExisting) {
         super(reactorUserId);
         this.reactorUserId = reactorUserId;
         this.actionType = actionType;
@@ -25,6 +26,7 @@ public class ReactionDomainEvent extends DomainEvent {
         this.targetType = targetType;
         this.targetId = targetId;
         this.postId = postId;
+        this.replacedExisting = replacedExisting;
     }
 
     @Override
@@ -85,7 +85,9 @@ public class DomainEventListener {
                 .userId2(event.getUserId2())
                 .build();
 
-        kafkaProducer.sendEventDto(friendshipEventDto, KafkaTopics.FRIENDSHIP_EVENTS);
+        // keyed by the pair, so every instance applies an accept and a later remove of the same pair in that order
+        String pairKey = Math.min(event.getUserId1(), event.getUserId2()) + ":" + Math.max(event.getUserId1(), event.getUserId2());
+        kafkaProducer.sendEventDto(pairKey, friendshipEventDto, KafkaTopics.FRIENDSHIP_EVENTS);
 
         log.debug("Feed friendship event published: action={}, users={}/{}",
                 event.getActionType(), event.getUserId1(), event.getUserId2());
@@ -0,0 +1,29 @@
+package com.app.server.event.app.listener;
+
+import com.app.server.event.app.domain.FeedFriendshipDomainEvent;
+import com.app.server.feed.FriendGraphCache;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Patches this instance's friend graph as soon as a friendship change commits,
+ * so the next fan-out from this instance already sees it. Other instances catch up
+ * through {@link com.app.server.feed.consumer.FriendGraphCacheInvalidationConsumer}.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class FriendGraphCacheEventListener {
+
+    private final FriendGraphCache friendGraphCache;
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void handleFeedFriendshipEvent(FeedFriendshipDomainEvent event) {
+        friendGraphCache.applyFriendshipChange(event.getUserId1(), event.getUserId2(), event.getActionType());
+        log.debug("Updated friend graph: action={}, users={}/{}",
+                event.getActionType(), event.getUserId1(), event.getUserId2());
+    }
+}
@@ -0,0 +1,45 @@
+package com.app.server.event.app.listener;
+
+import com.app.server.enums.CommentActionType;
+import com.app.server.enums.ReactionActionType;
+import com.app.server.enums.ReactionTargetType;
+import com.app.server.event.app.domain.CommentDomainEvent;
+import com.app.server.event.app.domain.ReactionDomainEvent;
+import com.app.server.repository.PostStatsRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Keeps post_stats in step with comments and reactions.
+ * Runs before commit, so the counter change commits or rolls back together with the write that caused it.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class PostStatsEventListener {
+
+    private final PostStatsRepository postStatsRepository;
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void handleCommentEvent(CommentDomainEvent event) {
+        if (event.getActionType() == CommentActionType.CREATE || event.getActionType() == CommentActionType.REPLY) {
+            postStatsRepository.incrementCounters(event.getPostId(), 1, 0);
+        } else if (event.getActionType() == CommentActionType.DELETE) {
+            postStatsRepository.recountComments(event.getPostId());
+        }
+        log.debug("Updated comment counter: postId={}, action={}", event.getPostId(), event.getActionType());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void handleReactionEvent(ReactionDomainEvent event) {
+        if (event.getTargetType() != ReactionTargetType.POST || event.isReplacedExisting()) {
+            return;
+        }
+        long delta = event.getActionType() == ReactionActionType.ADDED ? 1 : -1;
+        postStatsRepository.incrementCounters(event.getPostId(), 0, delta);
+        log.debug("Updated reaction counter: postId={}, delta={}", event.getPostId(), delta);
+    }
+}
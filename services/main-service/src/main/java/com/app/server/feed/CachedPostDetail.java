@@ -0,0 +1,30 @@
+package com.app.server.feed;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * Viewer-independent part of {@link com.app.server.projection.PostDetailProjection}.
+ * The viewer's own reaction is resolved separately, so one entry serves every reader.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class CachedPostDetail {
+    private Long postId;
+    private String content;
+    private String publicity;
+    private Long commentsCount;
+    private Long reactionsCount;
+    private Instant createdAt;
+    private Instant updatedAt;
+
+    // JSON strings, same shape as the projection
+    private String author;
+    private String files;
+}
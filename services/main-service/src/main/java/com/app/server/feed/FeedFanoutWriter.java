@@ -0,0 +1,196 @@
+package com.app.server.feed;
+
+import com.app.server.config.FeedProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.BiConsumer;
+import java.util.function.ToIntFunction;
+import java.util.stream.Collectors;
+
+/**
+ * Writes a single post id into many feed ZSETs.
+ * Feed keys are split into chunks and every chunk is sent as one pipelined
+ * round trip (ZADD + ZREMRANGEBYRANK per key) instead of two calls per friend.
+ * Add-if-absent writes run as one server-side script per chunk so check, add
+ * and trim are atomic against concurrent activity consumers.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class FeedFanoutWriter {
+
+    private static final String FEED_KEY_PREFIX = "feed:";
+    private static final String TIMELINE_KEY_PREFIX = "timeline:";
+
+    // DefaultRedisScript keeps the script's SHA1; RedisTemplate sends EVALSHA and only
+    // falls back to the full script body when the server answers NOSCRIPT
+    private static final RedisScript<Long> ADD_IF_ABSENT_AND_TRIM = RedisScript.of(
+            new ClassPathResource("redis/feed-add-if-absent-and-trim.lua"), Long.class);
+
+    private final RedisTemplate<String, String> redisTemplate;
+    private final FeedProperties feedProperties;
+    private final MeterRegistry meterRegistry;
+
+    private ThreadPoolTaskExecutor executor;
+
+    @PostConstruct
+    void init() {
+        executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(Math.max(1, feedProperties.getFanout().getConcurrency()));
+        executor.setMaxPoolSize(Math.max(1, feedProperties.getFanout().getConcurrency()));
+        executor.setThreadNamePrefix("feed-fanout-");
+        executor.initialize();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdown();
+    }
+
+    /**
+     * ZADD the post into every user's feed and trim each feed to the max size.
+     * @return number of feed keys written
+     */
+    public int addToFeeds(String fanoutType, long[] userIds, Long postId, long scoreMs) {
+        String member = String.valueOf(postId);
+        return writeInChunks(fanoutType, userIds, pipelined((operations, feedKey) -> {
+            operations.opsForZSet().add(feedKey, member, scoreMs);
+            trim(operations, feedKey);
+        }));
+    }
+
+    /**
+     * Adds the post only to feeds that do not contain it yet and trims the feeds it was added to.
+     * Each chunk is a single atomic script call.
+     * @return number of feeds the post was actually added to
+     */
+    public int addToFeedsIfAbsent(String fanoutType, long[] userIds, Long postId, long scoreMs) {
+        String member = String.valueOf(postId);
+        String score = String.valueOf(scoreMs);
+        String maxSize = String.valueOf(feedProperties.getMaxSize());
+
+        return writeInChunks(fanoutType, userIds, chunk -> {
+            List<String> feedKeys = Arrays.stream(chunk).mapToObj(this::feedKeyFor).collect(Collectors.toList());
+            Long added = redisTemplate.execute(ADD_IF_ABSENT_AND_TRIM, feedKeys, member, score, maxSize);
+            return added != null ? added.intValue() : 0;
+        });
+    }
+
+    public int removeFromFeeds(String fanoutType, long[] userIds, Long postId) {
+        String member = String.valueOf(postId);
+        return writeInChunks(fanoutType, userIds, pipelined(
+                (operations, feedKey) -> operations.opsForZSet().remove(feedKey, member)));
+    }
+
+    /**
+     * Writes the post once into the author's own timeline (pull side of the hybrid feed)
+     * and into the author's own feed, in a single pipelined round trip.
+     */
+    public void addToAuthorTimeline(Long authorId, Long postId, long scoreMs) {
+        String member = String.valueOf(postId);
+        Timer.Sample sample = Timer.start(meterRegistry);
+
+        redisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <K, V> Object execute(RedisOperations<K, V> operations) {
+                RedisOperations<String, String> stringOperations = (RedisOperations<String, String>) operations;
+                for (String key : List.of(timelineKeyFor(authorId), feedKeyFor(authorId))) {
+                    stringOperations.opsForZSet().add(key, member, scoreMs);
+                    trim(stringOperations, key);
+                }
+                return null;
+            }
+        });
+
+        sample.stop(meterRegistry.timer("feed.fanout.latency", "type", "timeline"));
+        meterRegistry.counter("feed.fanout.keys.written", "type", "timeline").increment(2);
+    }
+
+    public void removeFromAuthorTimeline(Long authorId, Long postId) {
+        redisTemplate.opsForZSet().remove(timelineKeyFor(authorId), String.valueOf(postId));
+    }
+
+    public String feedKeyFor(long userId) {
+        return FEED_KEY_PREFIX + userId;
+    }
+
+    public String timelineKeyFor(long authorId) {
+        return TIMELINE_KEY_PREFIX + authorId;
+    }
+
+    private int writeInChunks(String fanoutType, long[] userIds, ToIntFunction<long[]> chunkWriter) {
+        if (userIds.length == 0) {
+            return 0;
+        }
+
+        Timer.Sample sample = Timer.start(meterRegistry);
+        List<long[]> chunks = partition(userIds, Math.max(1, feedProperties.getFanout().getChunkSize()));
+
+        int keysWritten;
+        if (chunks.size() == 1 || feedProperties.getFanout().getConcurrency() <= 1) {
+            keysWritten = chunks.stream().mapToInt(chunkWriter).sum();
+        } else {
+            List<CompletableFuture<Integer>> futures = chunks.stream()
+                    .map(chunk -> CompletableFuture.supplyAsync(() -> chunkWriter.applyAsInt(chunk), executor))
+                    .collect(Collectors.toList());
+            CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).join();
+            keysWritten = futures.stream().mapToInt(CompletableFuture::join).sum();
+        }
+
+        sample.stop(meterRegistry.timer("feed.fanout.latency", "type", fanoutType));
+        meterRegistry.counter("feed.fanout.keys.written", "type", fanoutType).increment(keysWritten);
+
+        log.debug("Fan-out type={} wrote {}/{} feed keys in {} chunks",
+                fanoutType, keysWritten, userIds.length, chunks.size());
+        return keysWritten;
+    }
+
+    private ToIntFunction<long[]> pipelined(BiConsumer<RedisOperations<String, String>, String> command) {
+        return chunk -> {
+            redisTemplate.executePipelined(new SessionCallback<Object>() {
+                @Override
+                @SuppressWarnings("unchecked")
+                public <K, V> Object execute(RedisOperations<K, V> operations) {
+                    RedisOperations<String, String> stringOperations = (RedisOperations<String, String>) operations;
+                    for (long userId : chunk) {
+                        command.accept(stringOperations, feedKeyFor(userId));
+                    }
+                    return null;
+                }
+            });
+            return chunk.length;
+        };
+    }
+
+    private void trim(RedisOperations<String, String> operations, String feedKey) {
+        operations.opsForZSet().removeRange(feedKey, 0, -(feedProperties.getMaxSize() + 1));
+    }
+
+    private static List<long[]> partition(long[] ids, int chunkSize) {
+        if (ids.length <= chunkSize) {
+            return List.of(ids);
+        }
+        List<long[]> chunks = new ArrayList<>((ids.length + chunkSize - 1) / chunkSize);
+        for (int from = 0; from < ids.length; from += chunkSize) {
+            chunks.add(Arrays.copyOfRange(ids, from, Math.min(from + chunkSize, ids.length)));
+        }
+        return chunks;
+    }
+}
@@ -1,21 +1,35 @@
 package com.app.server.feed;
 
+import com.app.server.config.FeedProperties;
 import com.app.server.dto.response.FeedResponseDto;
 import com.app.server.dto.response.PostResponseDto;
 import com.app.server.enums.FriendshipActionType;
 import com.app.server.enums.PostPublicity;
 import com.app.server.mapper.PostMapper;
 import com.app.server.projection.PostDetailProjection;
-import com.app.server.repository.FriendshipServiceRepository;
 import com.app.server.repository.PostRepository;
+import com.app.server.utils.pagination.PostCursor;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.redis.core.RedisOperations;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.ZSetOperations.TypedTuple;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.PriorityQueue;
 import java.util.Set;
 import java.util.stream.Collectors;
 
@@ -24,14 +38,20 @@ import java.util.stream.Collectors;
 @Slf4j
 public class FeedServiceImpl implements FeedService {
 
-    private static final String FEED_KEY_PREFIX = "feed:";
-    private static final int MAX_FEED_SIZE = 500;
     private static final int BACKFILL_POST_LIMIT = 20;
+    private static final String CELEBRITY_AUTHORS_KEY = "timeline:authors";
+    private static final String ACTIVITY_DEDUPE_KEY_PREFIX = "feed-activity:";
+    // bounds the extra reads when a page loses entries to posts already shown on earlier pages
+    private static final int MAX_MERGE_ROUNDS = 3;
+    private static final int CELEBRITY_LOOKUP_CHUNK_SIZE = 1000;
 
     private final RedisTemplate<String, String> redisTemplate;
-    private final FriendshipServiceRepository friendshipRepository;
     private final PostRepository postRepository;
     private final PostMapper postMapper;
+    private final FeedFanoutWriter fanoutWriter;
+    private final FeedProperties feedProperties;
+    private final PostHydrator postHydrator;
+    private final FriendGraphCache friendGraphCache;
 
     @Override
     public void fanoutNewPost(Long authorId, Long postId, long createdAtEpochMs, String publicity) {
@@ -39,42 +59,49 @@ public class FeedServiceImpl implements FeedService {
             return;
         }
 
-        List<Long> friendIds = friendshipRepository.findAcceptedFriendIds(authorId);
+        long[] friendIds = friendGraphCache.getFriendIds(authorId);
 
-        addPostToFeed(authorId, postId, createdAtEpochMs);
+        if (isCelebrity(authorId, friendIds.length)) {
+            fanoutWriter.addToAuthorTimeline(authorId, postId, createdAtEpochMs);
+            log.debug("Wrote postId={} to timeline of high-degree authorId={} ({} friends)",
+                    postId, authorId, friendIds.length);
+            return;
+        }
 
-        friendIds.forEach(friendId -> addPostToFeed(friendId, postId, createdAtEpochMs));
+        fanoutWriter.addToFeeds("post", withFeedOwner(authorId, friendIds), postId, createdAtEpochMs);
 
-        log.debug("Fanned out postId={} to {} friends of authorId={}", postId, friendIds.size(), authorId);
+        log.debug("Fanned out postId={} to {} friends of authorId={}", postId, friendIds.length, authorId);
     }
 
     @Override
     public void fanoutFriendActivity(Long actorUserId, Long postId, long activityTimestampMs) {
-        List<Long> actorFriendIds = friendshipRepository.findAcceptedFriendIds(actorUserId);
-
-        actorFriendIds.forEach(friendId -> {
-            String feedKey = feedKeyFor(friendId);
-            Double existingScore = redisTemplate.opsForZSet().score(feedKey, String.valueOf(postId));
-            if (existingScore == null) {
-                redisTemplate.opsForZSet().add(feedKey, String.valueOf(postId), activityTimestampMs);
-                trimFeedToMaxSize(feedKey);
-            }
-        });
+        if (isRepeatedActivity(actorUserId, postId)) {
+            log.debug("Skipping repeated activity fan-out: actorId={}, postId={}", actorUserId, postId);
+            return;
+        }
+
+        long[] actorFriendIds;
+        try {
+            actorFriendIds = friendGraphCache.getFriendIds(actorUserId);
+            fanoutWriter.addToFeedsIfAbsent("activity", actorFriendIds, postId, activityTimestampMs);
+        } catch (RuntimeException e) {
+            // a failed or partial fan-out must not suppress the redelivery that retries it
+            releaseActivityMarker(actorUserId, postId);
+            throw e;
+        }
 
         log.debug("Fanned out friend activity: actorId={}, postId={}, reached {} friends",
-                actorUserId, postId, actorFriendIds.size());
+                actorUserId, postId, actorFriendIds.length);
     }
 
     @Override
     public void removePostFromAllFeeds(Long authorId, Long postId) {
-        List<Long> friendIds = friendshipRepository.findAcceptedFriendIds(authorId);
+        long[] friendIds = friendGraphCache.getFriendIds(authorId);
 
-        String postMember = String.valueOf(postId);
-        redisTemplate.opsForZSet().remove(feedKeyFor(authorId), postMember);
-        friendIds.forEach(friendId ->
-                redisTemplate.opsForZSet().remove(feedKeyFor(friendId), postMember));
+        fanoutWriter.removeFromFeeds("remove", withFeedOwner(authorId, friendIds), postId);
+        fanoutWriter.removeFromAuthorTimeline(authorId, postId);
 
-        log.debug("Removed postId={} from {} feeds", postId, friendIds.size() + 1);
+        log.debug("Removed postId={} from {} feeds", postId, friendIds.length + 1);
     }
 
     @Override
@@ -90,43 +117,235 @@ public class FeedServiceImpl implements FeedService {
 
     @Override
     public FeedResponseDto getFeed(Long userId, Long cursorEpochMs, int size) {
-        List<Long> postIds = fetchPostIdsFromCache(userId, cursorEpochMs, size);
+        CachedFeedPage page = fetchFeedEntriesFromCache(userId, cursorEpochMs, size);
+        List<TypedTuple<String>> entries = page.entries;
+
+        if (page.lastScore == null) {
+            List<PostResponseDto> posts = fetchFromDatabaseAndBackfillCache(userId, cursorEpochMs, size);
+            log.debug("Fetched {} posts from database for userId={}", posts.size(), userId);
+
+            return FeedResponseDto.builder()
+                    .posts(posts)
+                    .nextCursor(posts.isEmpty() ? null
+                            : posts.get(posts.size() - 1).getCreatedAt().toEpochMilli())
+                    .hasMore(posts.size() == size)
+                    .build();
+        }
 
+        List<Long> postIds = entries.stream()
+                .map(entry -> Long.parseLong(Objects.requireNonNull(entry.getValue())))
+                .collect(Collectors.toList());
         log.debug("Cache hit for userId={}, postIds={}", userId, postIds);
 
-        List<PostResponseDto> posts = postIds.isEmpty()
-                ? fetchFromDatabaseAndBackfillCache(userId, cursorEpochMs, size)
-                : hydratePostIds(userId, postIds);
+        List<PostResponseDto> posts = hydratePostIds(userId, postIds);
         log.debug("Fetched {} posts for userId={}", posts.size(), userId);
 
-        Long nextCursor = posts.isEmpty() ? null
-                : posts.get(posts.size() - 1).getCreatedAt().toEpochMilli();
-
+        // cursor follows the feed score of the last merged entry so the next page
+        // continues exactly where this merge stopped, across every merged timeline
         return FeedResponseDto.builder()
                 .posts(posts)
-                .nextCursor(nextCursor)
-                .hasMore(posts.size() == size)
+                .nextCursor(page.lastScore.longValue())
+                .hasMore(page.hasMore)
                 .build();
     }
 
-    private List<Long> fetchPostIdsFromCache(Long userId, Long cursorEpochMs, int size) {
+    /**
+     * Reads one page from the user's pushed feed plus the timelines of every
+     * high-degree friend (pull side), then k-way merges them on score.
+     * A post is shown at its highest score across the sources, so a lower-scored copy
+     * that reaches a later page is dropped and the page is topped up from further down.
+     */
+    private CachedFeedPage fetchFeedEntriesFromCache(Long userId, Long cursorEpochMs, int size) {
+        List<String> keys = new ArrayList<>();
+        keys.add(feedKeyFor(userId));
+        findCelebrityFriendIds(userId).forEach(friendId -> keys.add(fanoutWriter.timelineKeyFor(friendId)));
+
+        CachedFeedPage page = new CachedFeedPage(size);
         double maxScore = cursorEpochMs != null ? cursorEpochMs - 1 : Double.MAX_VALUE;
+        for (int round = 0; round < MAX_MERGE_ROUNDS && page.hasMore && page.entries.size() < size; round++) {
+            int wanted = size - page.entries.size();
+            List<TypedTuple<String>> merged = readAndMerge(keys, maxScore, wanted);
+            page.hasMore = merged.size() == wanted;
+            if (merged.isEmpty()) {
+                break;
+            }
+            page.entries.addAll(withoutPostsShownAbove(keys, merged, maxScore));
+            page.lastScore = merged.get(merged.size() - 1).getScore();
+            maxScore = page.lastScore - 1;
+        }
+        return page;
+    }
 
-        Set<String> members = redisTemplate.opsForZSet()
-                .reverseRangeByScore(feedKeyFor(userId), Double.MIN_VALUE, maxScore, 0, size);
-        log.debug("Cache hit for userId={}, members={}", userId, members);
+    private List<TypedTuple<String>> readAndMerge(List<String> keys, double maxScore, int size) {
+        if (keys.size() == 1) {
+            Set<TypedTuple<String>> members = redisTemplate.opsForZSet()
+                    .reverseRangeByScoreWithScores(keys.get(0), Double.MIN_VALUE, maxScore, 0, size);
+            return members == null ? Collections.emptyList() : new ArrayList<>(members);
+        }
 
-        if (members == null || members.isEmpty()) {
+        List<Object> pages = redisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <K, V> Object execute(RedisOperations<K, V> operations) {
+                RedisOperations<String, String> stringOperations = (RedisOperations<String, String>) operations;
+                keys.forEach(key -> stringOperations.opsForZSet()
+                        .reverseRangeByScoreWithScores(key, Double.MIN_VALUE, maxScore, 0, size));
+                return null;
+            }
+        });
+
+        @SuppressWarnings("unchecked")
+        List<Set<TypedTuple<String>>> sources = pages.stream()
+                .filter(Objects::nonNull)
+                .map(page -> (Set<TypedTuple<String>>) page)
+                .collect(Collectors.toList());
+
+        return mergeByScoreDescending(sources, size);
+    }
+
+    /**
+     * Drops entries whose post has a score above {@code maxScore} in another source: the merge emits
+     * a post at its highest score, so such a post was already returned on an earlier page.
+     * One ZMSCORE per source, in a single pipelined round trip.
+     */
+    private List<TypedTuple<String>> withoutPostsShownAbove(List<String> keys, List<TypedTuple<String>> entries,
+                                                            double maxScore) {
+        if (keys.size() == 1 || maxScore == Double.MAX_VALUE) {
+            return entries;
+        }
+
+        Object[] members = entries.stream().map(TypedTuple::getValue).toArray();
+        List<Object> scoresPerKey = redisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <K, V> Object execute(RedisOperations<K, V> operations) {
+                RedisOperations<String, String> stringOperations = (RedisOperations<String, String>) operations;
+                keys.forEach(key -> stringOperations.opsForZSet().score(key, members));
+                return null;
+            }
+        });
+
+        List<TypedTuple<String>> fresh = new ArrayList<>(entries.size());
+        for (int i = 0; i < entries.size(); i++) {
+            if (!hasScoreAbove(scoresPerKey, i, maxScore)) {
+                fresh.add(entries.get(i));
+            }
+        }
+        return fresh;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static boolean hasScoreAbove(List<Object> scoresPerKey, int memberIndex, double maxScore) {
+        for (Object scores : scoresPerKey) {
+            Double score = scores != null ? ((List<Double>) scores).get(memberIndex) : null;
+            if (score != null && score > maxScore) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Every source is already sorted by score descending, so a heap holding the
+     * head of each source yields the global order in O(size * log k).
+     * A post present in several sources (e.g. pushed by friend activity and also
+     * on an author timeline) is emitted once, at its highest score.
+     */
+    private List<TypedTuple<String>> mergeByScoreDescending(List<Set<TypedTuple<String>>> sources, int limit) {
+        PriorityQueue<Map.Entry<TypedTuple<String>, Iterator<TypedTuple<String>>>> heads = new PriorityQueue<>(
+                Comparator.comparing((Map.Entry<TypedTuple<String>, Iterator<TypedTuple<String>>> head) ->
+                        head.getKey().getScore()).reversed());
+
+        sources.forEach(source -> {
+            Iterator<TypedTuple<String>> iterator = source.iterator();
+            if (iterator.hasNext()) {
+                heads.add(Map.entry(iterator.next(), iterator));
+            }
+        });
+
+        Map<String, TypedTuple<String>> merged = new LinkedHashMap<>();
+        while (!heads.isEmpty() && merged.size() < limit) {
+            Map.Entry<TypedTuple<String>, Iterator<TypedTuple<String>>> head = heads.poll();
+            merged.putIfAbsent(head.getKey().getValue(), head.getKey());
+            if (head.getValue().hasNext()) {
+                heads.add(Map.entry(head.getValue().next(), head.getValue()));
+            }
+        }
+        return new ArrayList<>(merged.values());
+    }
+
+    /**
+     * The first reaction/comment of an actor on a post claims a short-lived marker;
+     * anything else the same actor does on that post inside the window is dropped
+     * before we load friends or touch any feed.
+     */
+    private boolean isRepeatedActivity(Long actorUserId, Long postId) {
+        Duration window = feedProperties.getActivityDedupeWindow();
+        if (window == null || window.isZero()) {
+            return false;
+        }
+        Boolean claimed = redisTemplate.opsForValue()
+                .setIfAbsent(activityMarkerKey(actorUserId, postId), "1", window);
+        return Boolean.FALSE.equals(claimed);
+    }
+
+    private void releaseActivityMarker(Long actorUserId, Long postId) {
+        try {
+            redisTemplate.delete(activityMarkerKey(actorUserId, postId));
+        } catch (RuntimeException e) {
+            log.warn("Could not release activity marker: actorId={}, postId={}", actorUserId, postId, e);
+        }
+    }
+
+    private static String activityMarkerKey(Long actorUserId, Long postId) {
+        return ACTIVITY_DEDUPE_KEY_PREFIX + postId + ":" + actorUserId;
+    }
+
+    private boolean isCelebrity(Long authorId, int friendCount) {
+        if (!feedProperties.getHybrid().isEnabled()) {
+            return false;
+        }
+        // once an author switches to pull mode they stay there, so readers never
+        // have to look for their newer posts in two places
+        if (friendCount >= feedProperties.getHybrid().getCelebrityFriendThreshold()) {
+            redisTemplate.opsForSet().add(CELEBRITY_AUTHORS_KEY, String.valueOf(authorId));
+            return true;
+        }
+        return Boolean.TRUE.equals(redisTemplate.opsForSet().isMember(CELEBRITY_AUTHORS_KEY, String.valueOf(authorId)));
+    }
+
+    private List<Long> findCelebrityFriendIds(Long userId) {
+        if (!feedProperties.getHybrid().isEnabled()) {
             return Collections.emptyList();
         }
 
-        return members.stream().map(Long::parseLong).collect(Collectors.toList());
+        // probe the user's friends against the set (SMISMEMBER), so the cost follows the friend count,
+        // not the number of celebrities on the platform
+        long[] friendIds = friendGraphCache.getFriendIds(userId);
+        List<Long> celebrityFriendIds = new ArrayList<>();
+        for (int from = 0; from < friendIds.length; from += CELEBRITY_LOOKUP_CHUNK_SIZE) {
+            Object[] chunk = Arrays.stream(friendIds, from, Math.min(from + CELEBRITY_LOOKUP_CHUNK_SIZE, friendIds.length))
+                    .mapToObj(String::valueOf)
+                    .toArray();
+            Map<Object, Boolean> membership = redisTemplate.opsForSet().isMember(CELEBRITY_AUTHORS_KEY, chunk);
+            if (membership != null) {
+                membership.forEach((friendId, celebrity) -> {
+                    if (Boolean.TRUE.equals(celebrity)) {
+                        celebrityFriendIds.add(Long.valueOf(friendId.toString()));
+                    }
+                });
+            }
+        }
+        return celebrityFriendIds;
     }
 
     private List<PostResponseDto> fetchFromDatabaseAndBackfillCache(Long userId, Long cursorEpochMs, int size) {
         log.debug("Cache miss for userId={}, falling back to database", userId);
 
-        List<PostDetailProjection> projections = postRepository.findFriendsFeedWithCursor(userId, cursorEpochMs, size);
+        Instant cursorCreatedAt = cursorEpochMs != null
+                ? Instant.ofEpochMilli(cursorEpochMs)
+                : PostCursor.START.getCreatedAt();
+        List<PostDetailProjection> projections = postRepository.findFriendsFeedWithCursor(userId, cursorCreatedAt, size);
 
         projections.forEach(p -> addPostToFeed(userId, p.getPostId(),
                 p.getCreatedAt().toEpochMilli()));
@@ -137,9 +356,7 @@ public class FeedServiceImpl implements FeedService {
     }
 
     private List<PostResponseDto> hydratePostIds(Long userId, List<Long> postIds) {
-        return postRepository.findPostDetailsByIds(userId, postIds).stream()
-                .map(postMapper::mapProjectionToPostResponseDto)
-                .collect(Collectors.toList());
+        return postHydrator.hydrate(userId, postIds);
     }
 
     private void addPostToFeed(Long userId, Long postId, long scoreMs) {
@@ -149,10 +366,14 @@ public class FeedServiceImpl implements FeedService {
     }
 
     private void trimFeedToMaxSize(String feedKey) {
-        redisTemplate.opsForZSet().removeRange(feedKey, 0, -(MAX_FEED_SIZE + 1));
+        redisTemplate.opsForZSet().removeRange(feedKey, 0, -(feedProperties.getMaxSize() + 1));
     }
 
     private void backfillRecentPostsIntoFeed(Long beneficiaryUserId, Long newFriendId) {
+        if (feedProperties.getHybrid().isEnabled() && Boolean.TRUE.equals(
+                redisTemplate.opsForSet().isMember(CELEBRITY_AUTHORS_KEY, String.valueOf(newFriendId)))) {
+            return; // their timeline is merged at read time
+        }
         postRepository.findUserPosts(newFriendId, PageRequest.of(0, BACKFILL_POST_LIMIT))
                 .stream()
                 .filter(post -> post.getPublicity() != PostPublicity.PRIVATE)
@@ -161,12 +382,32 @@ public class FeedServiceImpl implements FeedService {
     }
 
     private void removeAllPostsByUserFromFeed(Long feedOwnerUserId, Long removedFriendId) {
-        postRepository.findUserPosts(removedFriendId, PageRequest.of(0, MAX_FEED_SIZE))
+        postRepository.findUserPosts(removedFriendId, PageRequest.of(0, feedProperties.getMaxSize()))
                 .forEach(post -> redisTemplate.opsForZSet()
                         .remove(feedKeyFor(feedOwnerUserId), String.valueOf(post.getPostId())));
     }
 
+    private static long[] withFeedOwner(Long ownerId, long[] friendIds) {
+        long[] feedOwnerIds = new long[friendIds.length + 1];
+        feedOwnerIds[0] = ownerId;
+        System.arraycopy(friendIds, 0, feedOwnerIds, 1, friendIds.length);
+        return feedOwnerIds;
+    }
+
     private String feedKeyFor(Long userId) {
-        return FEED_KEY_PREFIX + userId;
+        return fanoutWriter.feedKeyFor(userId);
+    }
+
+    /**
+     * Entries of one feed page read from Redis; {@code lastScore} is null when the cache had nothing below the cursor
+     */
+    private static final class CachedFeedPage {
+        private final List<TypedTuple<String>> entries;
+        private Double lastScore;
+        private boolean hasMore = true;
+
+        private CachedFeedPage(int size) {
+            this.entries = new ArrayList<>(size);
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,146 @@
+package com.app.server.feed;
+
+import com.app.server.config.FeedProperties;
+import com.app.server.enums.FriendshipActionType;
+import com.app.server.repository.FriendshipServiceRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * On-heap adjacency cache of accepted friendships.
+ * Each user's friends are held as a sorted primitive {@code long[]}, which keeps an entry at
+ * 8 bytes per friend and lets membership checks and intersections run by binary search / merge.
+ * Entries are patched in place when a friendship changes instead of being reloaded.
+ * Returned arrays are shared and must not be modified by callers.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class FriendGraphCache {
+
+    private static final long[] NO_FRIENDS = new long[0];
+    // users per bulk adjacency query; the id list is bound twice, so this stays far below the bind parameter limit
+    private static final int BULK_LOAD_CHUNK_SIZE = 1000;
+
+    private final FriendshipServiceRepository friendshipRepository;
+    private final FeedProperties feedProperties;
+
+    private Cache<Long, long[]> adjacency;
+
+    @PostConstruct
+    void init() {
+        adjacency = Caffeine.newBuilder()
+                .maximumWeight(feedProperties.getFriendGraph().getMaxFriendIds())
+                .weigher((Long userId, long[] friendIds) -> Math.max(1, friendIds.length))
+                .expireAfterWrite(feedProperties.getFriendGraph().getTtl())
+                .build();
+    }
+
+    public long[] getFriendIds(Long userId) {
+        return adjacency.get(userId, this::load);
+    }
+
+    /**
+     * Concatenated friend ids of many users, at most {@code maxIds} of them. Cached lists are used as they are;
+     * the others are read with one bulk query per chunk of users and are not cached, so a single call does not
+     * fill the cache with second-degree users.
+     */
+    public long[] collectFriendIdsOf(long[] userIds, int maxIds) {
+        List<long[]> lists = new ArrayList<>();
+        List<Long> uncached = new ArrayList<>();
+        int total = 0;
+        for (long userId : userIds) {
+            long[] cached = adjacency.getIfPresent(userId);
+            if (cached == null) {
+                uncached.add(userId);
+            } else if (total + cached.length <= maxIds) {
+                lists.add(cached);
+                total += cached.length;
+            }
+        }
+
+        for (int from = 0; from < uncached.size() && total < maxIds; from += BULK_LOAD_CHUNK_SIZE) {
+            List<Long> chunk = uncached.subList(from, Math.min(from + BULK_LOAD_CHUNK_SIZE, uncached.size()));
+            long[] loaded = friendshipRepository.findAcceptedFriendIdsOfUsers(chunk, maxIds - total)
+                    .stream().mapToLong(Long::longValue).toArray();
+            lists.add(loaded);
+            total += loaded.length;
+        }
+
+        long[] collected = new long[total];
+        int offset = 0;
+        for (long[] list : lists) {
+            System.arraycopy(list, 0, collected, offset, list.length);
+            offset += list.length;
+        }
+        log.debug("Collected {} friend ids of {} users ({} not cached)", total, userIds.length, uncached.size());
+        return collected;
+    }
+
+    public boolean areFriends(Long userId, Long otherUserId) {
+        return Arrays.binarySearch(getFriendIds(userId), otherUserId) >= 0;
+    }
+
+    public void applyFriendshipChange(Long userId1, Long userId2, FriendshipActionType actionType) {
+        if (actionType == FriendshipActionType.ACCEPTED) {
+            addFriendship(userId1, userId2);
+        } else {
+            removeFriendship(userId1, userId2);
+        }
+    }
+
+    /** Applies an accepted friendship to both users' cached lists, if they are cached. */
+    public void addFriendship(Long userId1, Long userId2) {
+        adjacency.asMap().computeIfPresent(userId1, (userId, friendIds) -> insert(friendIds, userId2));
+        adjacency.asMap().computeIfPresent(userId2, (userId, friendIds) -> insert(friendIds, userId1));
+    }
+
+    /** Applies a removed or blocked friendship to both users' cached lists, if they are cached. */
+    public void removeFriendship(Long userId1, Long userId2) {
+        adjacency.asMap().computeIfPresent(userId1, (userId, friendIds) -> remove(friendIds, userId2));
+        adjacency.asMap().computeIfPresent(userId2, (userId, friendIds) -> remove(friendIds, userId1));
+    }
+
+    private long[] load(Long userId) {
+        List<Long> friendIds = friendshipRepository.findAcceptedFriendIds(userId);
+        if (friendIds.isEmpty()) {
+            return NO_FRIENDS;
+        }
+        long[] sorted = friendIds.stream().mapToLong(Long::longValue).sorted().distinct().toArray();
+        log.debug("Loaded {} friend ids for userId={}", sorted.length, userId);
+        return sorted;
+    }
+
+    // copy-on-write so readers holding the previous array never see it change
+    private static long[] insert(long[] friendIds, long friendId) {
+        int index = Arrays.binarySearch(friendIds, friendId);
+        if (index >= 0) {
+            return friendIds;
+        }
+        int insertAt = -index - 1;
+        long[] updated = new long[friendIds.length + 1];
+        System.arraycopy(friendIds, 0, updated, 0, insertAt);
+        updated[insertAt] = friendId;
+        System.arraycopy(friendIds, insertAt, updated, insertAt + 1, friendIds.length - insertAt);
+        return updated;
+    }
+
+    private static long[] remove(long[] friendIds, long friendId) {
+        int index = Arrays.binarySearch(friendIds, friendId);
+        if (index < 0) {
+            return friendIds;
+        }
+        long[] updated = new long[friendIds.length - 1];
+        System.arraycopy(friendIds, 0, updated, 0, index);
+        System.arraycopy(friendIds, index + 1, updated, index, friendIds.length - index - 1);
+        return updated;
+    }
+}
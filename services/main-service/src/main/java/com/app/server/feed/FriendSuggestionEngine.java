@@ -0,0 +1,140 @@
+package com.app.server.feed;
+
+import com.app.server.config.FeedProperties;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Mutual-friend and friend-of-friend computations over the sorted adjacency lists
+ * held by {@link FriendGraphCache}. Intersections are linear merges of two sorted arrays,
+ * and suggestions are ranked by how many of the user's friends already know the candidate.
+ * Because the adjacency lists are patched from friendship events, results follow the graph
+ * without any recomputation step.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class FriendSuggestionEngine {
+
+    private final FriendGraphCache friendGraphCache;
+    private final FeedProperties feedProperties;
+
+    public int countMutualFriends(Long userId1, Long userId2) {
+        long[] friends1 = friendGraphCache.getFriendIds(userId1);
+        long[] friends2 = friendGraphCache.getFriendIds(userId2);
+
+        int count = 0;
+        int i = 0;
+        int j = 0;
+        while (i < friends1.length && j < friends2.length) {
+            if (friends1[i] < friends2[j]) {
+                i++;
+            } else if (friends1[i] > friends2[j]) {
+                j++;
+            } else {
+                count++;
+                i++;
+                j++;
+            }
+        }
+        return count;
+    }
+
+    public List<Long> findMutualFriendIds(Long userId1, Long userId2) {
+        long[] friends1 = friendGraphCache.getFriendIds(userId1);
+        long[] friends2 = friendGraphCache.getFriendIds(userId2);
+
+        List<Long> mutual = new ArrayList<>();
+        int i = 0;
+        int j = 0;
+        while (i < friends1.length && j < friends2.length) {
+            if (friends1[i] < friends2[j]) {
+                i++;
+            } else if (friends1[i] > friends2[j]) {
+                j++;
+            } else {
+                mutual.add(friends1[i]);
+                i++;
+                j++;
+            }
+        }
+        return mutual;
+    }
+
+    /**
+     * Friends of friends ranked by mutual-friend count (ties broken by lower user id).
+     *
+     * @param excludedUserIds users that must never be suggested, e.g. pending or blocked counterparts
+     */
+    public List<Long> suggestFriendIds(Long userId, Collection<Long> excludedUserIds, int limit) {
+        long[] friendIds = friendGraphCache.getFriendIds(userId);
+        if (friendIds.length == 0 || limit <= 0) {
+            return Collections.emptyList();
+        }
+
+        long[] candidates = collectFriendsOfFriends(friendIds);
+        Arrays.sort(candidates);
+
+        // min-heap on (mutualCount, -userId) keeps the best `limit` candidates seen so far
+        PriorityQueue<long[]> best = new PriorityQueue<>(limit + 1,
+                (a, b) -> a[1] != b[1] ? Long.compare(a[1], b[1]) : Long.compare(b[0], a[0]));
+
+        int runStart = 0;
+        while (runStart < candidates.length) {
+            long candidateId = candidates[runStart];
+            int runEnd = runStart;
+            while (runEnd < candidates.length && candidates[runEnd] == candidateId) {
+                runEnd++;
+            }
+            if (candidateId != userId
+                    && Arrays.binarySearch(friendIds, candidateId) < 0
+                    && !excludedUserIds.contains(candidateId)) {
+                best.offer(new long[]{candidateId, runEnd - runStart});
+                if (best.size() > limit) {
+                    best.poll();
+                }
+            }
+            runStart = runEnd;
+        }
+
+        List<Long> ranked = new ArrayList<>(best.size());
+        while (!best.isEmpty()) {
+            ranked.add(best.poll()[0]);
+        }
+        Collections.reverse(ranked);
+        log.debug("Suggested {} users for userId={} from {} friend-of-friend edges",
+                ranked.size(), userId, candidates.length);
+        return ranked;
+    }
+
+    /**
+     * Concatenates the friends' adjacency lists up to the configured edge budget, so a single very
+     * connected user cannot make the call unbounded. Friends are visited in random order, so when the
+     * budget is hit the candidates come from a sample of the friends rather than the lowest user ids.
+     */
+    private long[] collectFriendsOfFriends(long[] friendIds) {
+        int budget = feedProperties.getFriendGraph().getMaxSuggestionEdges();
+        return friendGraphCache.collectFriendIdsOf(shuffled(friendIds), budget);
+    }
+
+    private static long[] shuffled(long[] ids) {
+        long[] copy = ids.clone();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = copy.length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            long swap = copy[i];
+            copy[i] = copy[j];
+            copy[j] = swap;
+        }
+        return copy;
+    }
+}
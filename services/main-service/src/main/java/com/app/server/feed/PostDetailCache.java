@@ -0,0 +1,143 @@
+package com.app.server.feed;
+
+import com.app.server.config.FeedProperties;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Two-tier cache of {@link CachedPostDetail}: Caffeine on-heap in front of one Redis hash per post.
+ * Redis lookups for local misses are pipelined, so a feed page costs at most one round trip.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class PostDetailCache {
+
+    private static final String KEY_PREFIX = "post:";
+
+    private final RedisTemplate<String, String> redisTemplate;
+    private final FeedProperties feedProperties;
+
+    private Cache<Long, CachedPostDetail> localCache;
+
+    @PostConstruct
+    void init() {
+        localCache = Caffeine.newBuilder()
+                .maximumSize(feedProperties.getPostCache().getLocalMaxSize())
+                .expireAfterWrite(feedProperties.getPostCache().getLocalTtl())
+                .build();
+    }
+
+    public Map<Long, CachedPostDetail> getAll(Collection<Long> postIds) {
+        Map<Long, CachedPostDetail> found = new HashMap<>(localCache.getAllPresent(postIds));
+
+        List<Long> missing = postIds.stream()
+                .filter(postId -> !found.containsKey(postId))
+                .distinct()
+                .collect(Collectors.toList());
+        if (missing.isEmpty()) {
+            return found;
+        }
+
+        List<Object> hashes = redisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <K, V> Object execute(RedisOperations<K, V> operations) {
+                RedisOperations<String, String> stringOperations = (RedisOperations<String, String>) operations;
+                missing.forEach(postId -> stringOperations.opsForHash().entries(keyFor(postId)));
+                return null;
+            }
+        });
+
+        for (int i = 0; i < missing.size(); i++) {
+            Map<?, ?> hash = (Map<?, ?>) hashes.get(i);
+            if (hash != null && !hash.isEmpty()) {
+                CachedPostDetail detail = fromHash(hash);
+                localCache.put(detail.getPostId(), detail);
+                found.put(detail.getPostId(), detail);
+            }
+        }
+
+        log.debug("Post detail cache: requested={}, local+redis hits={}", postIds.size(), found.size());
+        return found;
+    }
+
+    public void putAll(Collection<CachedPostDetail> details) {
+        if (details.isEmpty()) {
+            return;
+        }
+        details.forEach(detail -> localCache.put(detail.getPostId(), detail));
+
+        redisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <K, V> Object execute(RedisOperations<K, V> operations) {
+                RedisOperations<String, String> stringOperations = (RedisOperations<String, String>) operations;
+                details.forEach(detail -> {
+                    String key = keyFor(detail.getPostId());
+                    stringOperations.opsForHash().putAll(key, toHash(detail));
+                    stringOperations.expire(key, feedProperties.getPostCache().getRedisTtl());
+                });
+                return null;
+            }
+        });
+    }
+
+    public void evict(Long postId) {
+        localCache.invalidate(postId);
+        redisTemplate.delete(keyFor(postId));
+    }
+
+    private String keyFor(Long postId) {
+        return KEY_PREFIX + postId;
+    }
+
+    private static Map<String, String> toHash(CachedPostDetail detail) {
+        Map<String, String> hash = new HashMap<>();
+        hash.put("postId", String.valueOf(detail.getPostId()));
+        hash.put("commentsCount", String.valueOf(detail.getCommentsCount()));
+        hash.put("reactionsCount", String.valueOf(detail.getReactionsCount()));
+        hash.put("createdAt", String.valueOf(detail.getCreatedAt().toEpochMilli()));
+        hash.put("author", detail.getAuthor());
+        hash.put("files", detail.getFiles());
+        if (detail.getContent() != null) {
+            hash.put("content", detail.getContent());
+        }
+        if (detail.getPublicity() != null) {
+            hash.put("publicity", detail.getPublicity());
+        }
+        if (detail.getUpdatedAt() != null) {
+            hash.put("updatedAt", String.valueOf(detail.getUpdatedAt().toEpochMilli()));
+        }
+        return hash;
+    }
+
+    private static CachedPostDetail fromHash(Map<?, ?> hash) {
+        Object updatedAt = hash.get("updatedAt");
+        return CachedPostDetail.builder()
+                .postId(Long.parseLong((String) hash.get("postId")))
+                .content((String) hash.get("content"))
+                .publicity((String) hash.get("publicity"))
+                .commentsCount(Long.parseLong((String) hash.get("commentsCount")))
+                .reactionsCount(Long.parseLong((String) hash.get("reactionsCount")))
+                .createdAt(Instant.ofEpochMilli(Long.parseLong((String) hash.get("createdAt"))))
+                .updatedAt(updatedAt != null ? Instant.ofEpochMilli(Long.parseLong((String) updatedAt)) : null)
+                .author((String) hash.get("author"))
+                .files((String) hash.get("files"))
+                .build();
+    }
+}
@@ -0,0 +1,62 @@
+package com.app.server.feed;
+
+import com.app.server.dto.response.PostResponseDto;
+import com.app.server.enums.ReactionTargetType;
+import com.app.server.enums.ReactionType;
+import com.app.server.mapper.PostMapper;
+import com.app.server.model.UserReaction;
+import com.app.server.repository.PostRepository;
+import com.app.server.repository.UserReactionsRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+/**
+ * Turns feed post ids into {@link PostResponseDto}s.
+ * Shared post details come from {@link PostDetailCache}; only cache misses hit
+ * {@code findPostDetailsByIds}, and the viewer's reactions are one batched lookup.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class PostHydrator {
+
+    private final PostDetailCache postDetailCache;
+    private final PostRepository postRepository;
+    private final UserReactionsRepository userReactionsRepository;
+    private final PostMapper postMapper;
+
+    public List<PostResponseDto> hydrate(Long viewerId, List<Long> postIds) {
+        Map<Long, CachedPostDetail> details = postDetailCache.getAll(postIds);
+
+        List<Long> missing = postIds.stream()
+                .filter(postId -> !details.containsKey(postId))
+                .collect(Collectors.toList());
+        if (!missing.isEmpty()) {
+            log.debug("Post detail cache miss for postIds={}", missing);
+            List<CachedPostDetail> loaded = postRepository.findPostDetailsByIds(viewerId, missing).stream()
+                    .map(postMapper::mapProjectionToCachedPostDetail)
+                    .collect(Collectors.toList());
+            postDetailCache.putAll(loaded);
+            loaded.forEach(detail -> details.put(detail.getPostId(), detail));
+        }
+
+        Map<Long, ReactionType> myReactions = userReactionsRepository
+                .findByAuthorAndTargetIdsAndReactionTargetType(viewerId, details.keySet(), ReactionTargetType.POST)
+                .stream()
+                .collect(Collectors.toMap(UserReaction::getTargetId, UserReaction::getReactionType, (a, b) -> a));
+
+        // keep the caller's order; ids whose post no longer exists are skipped
+        return postIds.stream()
+                .map(details::get)
+                .filter(Objects::nonNull)
+                .map(detail -> postMapper.mapCachedPostDetailToPostResponseDto(
+                        detail, myReactions.get(detail.getPostId())))
+                .collect(Collectors.toList());
+    }
+}
@@ -3,6 +3,7 @@ package com.app.server.feed.consumer;
 import com.app.server.dto.notification.comment.CommentEventDto;
 import com.app.server.enums.CommentActionType;
 import com.app.server.feed.FeedService;
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -10,6 +11,10 @@ import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.stereotype.Component;
 
+/**
+ * Failures are rethrown to the container's error handler: a failed fan-out (which released its activity
+ * marker) is retried with backoff and then dead-lettered, while an unparsable record goes straight to the DLT.
+ */
 @Component
 @RequiredArgsConstructor
 @Slf4j
@@ -19,7 +24,7 @@ public class FeedCommentEventConsumer {
     private final ObjectMapper objectMapper;
 
     @KafkaListener(topics = "comment-events", groupId = "feed-service-group")
-    public void onCommentEvent(ConsumerRecord<String, String> record) {
+    public void onCommentEvent(ConsumerRecord<String, String> record) throws JsonProcessingException {
         try {
             CommentEventDto event = objectMapper.readValue(record.value(), CommentEventDto.class);
 
@@ -30,8 +35,9 @@ public class FeedCommentEventConsumer {
                         System.currentTimeMillis()
                 );
             }
-        } catch (Exception e) {
+        } catch (JsonProcessingException | RuntimeException e) {
             log.error("Failed to process comment event: {}", record.value(), e);
+            throw e;
         }
     }
 }
\ No newline at end of file
@@ -3,6 +3,7 @@ package com.app.server.feed.consumer;
 import com.app.server.dto.notification.reaction.ReactionEventDto;
 import com.app.server.enums.ReactionActionType;
 import com.app.server.feed.FeedService;
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -10,6 +11,10 @@ import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.stereotype.Component;
 
+/**
+ * Failures are rethrown to the container's error handler: a failed fan-out (which released its activity
+ * marker) is retried with backoff and then dead-lettered, while an unparsable record goes straight to the DLT.
+ */
 @Component
 @RequiredArgsConstructor
 @Slf4j
@@ -19,7 +24,7 @@ public class FeedReactionEventConsumer {
     private final ObjectMapper objectMapper;
 
     @KafkaListener(topics = "like-events", groupId = "feed-service-group")
-    public void onReactionEvent(ConsumerRecord<String, String> record) {
+    public void onReactionEvent(ConsumerRecord<String, String> record) throws JsonProcessingException {
         try {
             ReactionEventDto event = objectMapper.readValue(record.value(), ReactionEventDto.class);
 
@@ -30,8 +35,9 @@ public class FeedReactionEventConsumer {
                         System.currentTimeMillis()
                 );
             }
-        } catch (Exception e) {
+        } catch (JsonProcessingException | RuntimeException e) {
             log.error("Failed to process reaction event: {}", record.value(), e);
+            throw e;
         }
     }
 }
\ No newline at end of file
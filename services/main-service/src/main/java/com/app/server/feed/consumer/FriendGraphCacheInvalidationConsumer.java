@@ -0,0 +1,36 @@
+package com.app.server.feed.consumer;
+
+import com.app.server.dto.notification.friendship.FriendshipEventDto;
+import com.app.server.feed.FriendGraphCache;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Applies friendship changes made on other instances to this instance's friend graph.
+ * Updates are idempotent, so the change this instance already applied locally is a no-op here.
+ * Events are keyed by the user pair, so changes of one friendship arrive in the order they committed.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class FriendGraphCacheInvalidationConsumer {
+
+    private final FriendGraphCache friendGraphCache;
+    private final ObjectMapper objectMapper;
+
+    @KafkaListener(topics = "friendship-events",
+            groupId = "friend-graph-${feed.instance-id}",
+            properties = "auto.offset.reset=latest")
+    public void onFriendshipEvent(ConsumerRecord<String, String> record) {
+        try {
+            FriendshipEventDto event = objectMapper.readValue(record.value(), FriendshipEventDto.class);
+            friendGraphCache.applyFriendshipChange(event.getUserId1(), event.getUserId2(), event.getActionType());
+        } catch (Exception e) {
+            log.error("Failed to apply friendship event to friend graph: {}", record.value(), e);
+        }
+    }
+}
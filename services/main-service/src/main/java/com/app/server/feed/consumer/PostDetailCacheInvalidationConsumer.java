@@ -0,0 +1,62 @@
+package com.app.server.feed.consumer;
+
+import com.app.server.dto.notification.comment.CommentEventDto;
+import com.app.server.dto.notification.post.PostEventDto;
+import com.app.server.dto.notification.reaction.ReactionEventDto;
+import com.app.server.enums.PostActionType;
+import com.app.server.feed.PostDetailCache;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Evicts cached post details when a post, its comments or its reactions change.
+ * Uses a per-instance consumer group so every instance drops its own on-heap copy,
+ * and starts from the latest offset since older events can't refer to anything cached.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class PostDetailCacheInvalidationConsumer {
+
+    private static final String GROUP_ID = "post-cache-${feed.instance-id}";
+    private static final String FROM_LATEST = "auto.offset.reset=latest";
+
+    private final PostDetailCache postDetailCache;
+    private final ObjectMapper objectMapper;
+
+    @KafkaListener(topics = "post-events", groupId = GROUP_ID, properties = FROM_LATEST)
+    public void onPostEvent(ConsumerRecord<String, String> record) {
+        try {
+            PostEventDto event = objectMapper.readValue(record.value(), PostEventDto.class);
+            if (event.getActionType() != PostActionType.CREATE) {
+                postDetailCache.evict(event.getPostId());
+            }
+        } catch (Exception e) {
+            log.error("Failed to evict post detail for post event: {}", record.value(), e);
+        }
+    }
+
+    @KafkaListener(topics = "comment-events", groupId = GROUP_ID, properties = FROM_LATEST)
+    public void onCommentEvent(ConsumerRecord<String, String> record) {
+        try {
+            CommentEventDto event = objectMapper.readValue(record.value(), CommentEventDto.class);
+            postDetailCache.evict(event.getComment().getPostId());
+        } catch (Exception e) {
+            log.error("Failed to evict post detail for comment event: {}", record.value(), e);
+        }
+    }
+
+    @KafkaListener(topics = "like-events", groupId = GROUP_ID, properties = FROM_LATEST)
+    public void onReactionEvent(ConsumerRecord<String, String> record) {
+        try {
+            ReactionEventDto event = objectMapper.readValue(record.value(), ReactionEventDto.class);
+            postDetailCache.evict(event.getPostId());
+        } catch (Exception e) {
+            log.error("Failed to evict post detail for reaction event: {}", record.value(), e);
+        }
+    }
+}
@@ -9,6 +9,7 @@ import com.app.server.dto.response.PostResponseDto;
 import com.app.server.dto.response.user.AuthorResponseDto;
 import com.app.server.enums.PostPublicity;
 import com.app.server.enums.ReactionType;
+import com.app.server.feed.CachedPostDetail;
 import com.app.server.model.Post;
 import com.app.server.projection.PostDetailProjection;
 import com.fasterxml.jackson.core.type.TypeReference;
@@ -104,6 +105,41 @@ public class PostMapper {
         }
     }
 
+    public CachedPostDetail mapProjectionToCachedPostDetail(PostDetailProjection projection) {
+        return CachedPostDetail.builder()
+                .postId(projection.getPostId())
+                .content(projection.getContent())
+                .publicity(projection.getPublicity())
+                .commentsCount(projection.getCommentsCount())
+                .reactionsCount(projection.getReactionsCount())
+                .createdAt(projection.getCreatedAt())
+                .updatedAt(projection.getUpdatedAt())
+                .author(projection.getAuthor())
+                .files(projection.getFiles())
+                .build();
+    }
+
+    public PostResponseDto mapCachedPostDetailToPostResponseDto(CachedPostDetail detail, ReactionType myReactionType) {
+        try {
+            return PostResponseDto.builder()
+                    .postId(detail.getPostId())
+                    .content(detail.getContent())
+                    .publicity(detail.getPublicity() != null ?
+                        PostPublicity.valueOf(detail.getPublicity()) : null)
+                    .commentsCount(detail.getCommentsCount())
+                    .reactionsCount(detail.getReactionsCount())
+                    .createdAt(detail.getCreatedAt())
+                    .updatedAt(detail.getUpdatedAt())
+                    .author(objectMapper.readValue(detail.getAuthor(), AuthorResponseDto.class))
+                    .myReactionType(myReactionType)
+                    .files(parseFilesJson(detail.getFiles()))
+                    .build();
+        } catch (Exception e) {
+            log.error("Failed to map cached post detail to PostResponseDto: {}", e.getMessage(), e);
+            throw new RuntimeException("Failed to map cached post detail to PostResponseDto", e);
+        }
+    }
+
     public PostEventDto toPostEventDto(Post post, PostActionType actionType) {
         PostEventDto.AuthorData authorData = null;
         if (post.getAuthor() != null) {
@@ -0,0 +1,34 @@
+package com.app.server.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Denormalized counters for a post, kept up to date from comment and reaction domain events
+ * so post reads don't have to COUNT over comments and reactions.
+ */
+@Entity
+@Table(name = "post_stats")
+@Setter
+@Getter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class PostStats {
+    @Id
+    @Column(name = "post_id")
+    private Long postId;
+
+    @Column(name = "comments_count", nullable = false)
+    private long commentsCount;
+
+    @Column(name = "reactions_count", nullable = false)
+    private long reactionsCount;
+}
@@ -10,6 +10,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
 
@@ -44,8 +45,8 @@ public interface PostRepository extends JpaRepository<Post,Long> {
                pp.post_id AS postId,
                pp.content AS content,
                pp.publicity AS publicity,
-               COUNT(DISTINCT cmnt.comment_id) AS commentsCount,
-               COUNT(DISTINCT re.reaction_id) AS reactionsCount,
+               COALESCE(ps.comments_count, 0) AS commentsCount,
+               COALESCE(ps.reactions_count, 0) AS reactionsCount,
                pp.created_at AS createdAt,
                pp.updated_at AS updatedAt,
                json_build_object(
@@ -56,7 +57,13 @@ public interface PostRepository extends JpaRepository<Post,Long> {
                    'profilePictureUrl', null,
                    'bio', null
                )::text AS author,
-               MAX(CASE WHEN re.author_id = :userId THEN re.reaction_type ELSE NULL END) AS myReactionType,
+               (
+                   SELECT re.reaction_type FROM reactions re
+                   WHERE re.target_id = pp.post_id
+                     AND re.author_id = :userId
+                     AND re.reaction_target_type = 'POST'
+                   LIMIT 1
+               ) AS myReactionType,
                COALESCE(
                    json_agg(
                        json_build_object(
@@ -72,13 +79,13 @@ public interface PostRepository extends JpaRepository<Post,Long> {
                )::text AS files
            FROM
                paginated_posts pp
-               LEFT JOIN comments cmnt ON pp.post_id = cmnt.post_id
-               LEFT JOIN reactions re ON re.target_id = pp.post_id
+               LEFT JOIN post_stats ps ON ps.post_id = pp.post_id
                INNER JOIN user_profiles au ON pp.author_id = au.user_id
                LEFT JOIN post_files pf ON pp.post_id = pf.post_id
                LEFT JOIN files f ON pf.file_id = f.file_id
            GROUP BY
-               pp.post_id, pp.content, pp.publicity, pp.created_at, pp.updated_at, au.user_id, au.first_name, au.last_name
+               pp.post_id, pp.content, pp.publicity, pp.created_at, pp.updated_at, au.user_id, au.first_name, au.last_name,
+               ps.comments_count, ps.reactions_count
            ORDER BY
                pp.created_at DESC, pp.post_id DESC
            """, nativeQuery = true)
@@ -88,6 +95,156 @@ public interface PostRepository extends JpaRepository<Post,Long> {
         @Param("offset") int offset
     );
 
+    /**
+     * Fetches recent posts older than the given cursor, newest first.
+     * Keyset (seek) variant: rows strictly after the (created_at, post_id) cursor are read
+     * straight off the index, so every page costs the same regardless of scroll depth.
+     */
+    @Query(value = """
+           WITH page_posts AS (
+               SELECT
+                   p.post_id,
+                   p.content,
+                   p.publicity,
+                   p.created_at,
+                   p.updated_at,
+                   p.author_id
+               FROM posts p
+               WHERE (p.created_at, p.post_id) < (:cursorCreatedAt, :cursorPostId)
+               ORDER BY p.created_at DESC, p.post_id DESC
+               LIMIT :limit
+           )
+           SELECT
+               pp.post_id AS postId,
+               pp.content AS content,
+               pp.publicity AS publicity,
+               COALESCE(ps.comments_count, 0) AS commentsCount,
+               COALESCE(ps.reactions_count, 0) AS reactionsCount,
+               pp.created_at AS createdAt,
+               pp.updated_at AS updatedAt,
+               json_build_object(
+                   'userId', au.user_id,
+                   'firstName', au.first_name,
+                   'lastName', au.last_name,
+                   'email', null,
+                   'profilePictureUrl', null,
+                   'bio', null
+               )::text AS author,
+               (
+                   SELECT re.reaction_type FROM reactions re
+                   WHERE re.target_id = pp.post_id
+                     AND re.author_id = :userId
+                     AND re.reaction_target_type = 'POST'
+                   LIMIT 1
+               ) AS myReactionType,
+               COALESCE(
+                   json_agg(
+                       json_build_object(
+                           'fileId', f.file_id,
+                           'fileUrl', f.file_url,
+                           'fileType', f.file_type,
+                           'fileSize', f.file_size_in_bytes,
+                           'fileName', f.file_name,
+                           'fileExtension', f.file_extension
+                       )
+                   ) FILTER (WHERE f.file_id IS NOT NULL),
+                   '[]'::json
+               )::text AS files
+           FROM
+               page_posts pp
+               LEFT JOIN post_stats ps ON ps.post_id = pp.post_id
+               INNER JOIN user_profiles au ON pp.author_id = au.user_id
+               LEFT JOIN post_files pf ON pp.post_id = pf.post_id
+               LEFT JOIN files f ON pf.file_id = f.file_id
+           GROUP BY
+               pp.post_id, pp.content, pp.publicity, pp.created_at, pp.updated_at, au.user_id, au.first_name, au.last_name,
+               ps.comments_count, ps.reactions_count
+           ORDER BY
+               pp.created_at DESC, pp.post_id DESC
+           """, nativeQuery = true)
+    List<PostDetailProjection> findRecentPostsBefore(
+        @Param("userId") Long userId,
+        @Param("cursorCreatedAt") Instant cursorCreatedAt,
+        @Param("cursorPostId") Long cursorPostId,
+        @Param("limit") int limit
+    );
+
+    /**
+     * Fetches a single author's posts older than the given cursor, newest first.
+     * Keyset (seek) variant: rows strictly after the (created_at, post_id) cursor are read
+     * straight off the index, so every page costs the same regardless of scroll depth.
+     */
+    @Query(value = """
+           WITH page_posts AS (
+               SELECT
+                   p.post_id,
+                   p.content,
+                   p.publicity,
+                   p.created_at,
+                   p.updated_at,
+                   p.author_id
+               FROM posts p
+               WHERE p.author_id = :authorId
+                 AND (p.created_at, p.post_id) < (:cursorCreatedAt, :cursorPostId)
+               ORDER BY p.created_at DESC, p.post_id DESC
+               LIMIT :limit
+           )
+           SELECT
+               pp.post_id AS postId,
+               pp.content AS content,
+               pp.publicity AS publicity,
+               COALESCE(ps.comments_count, 0) AS commentsCount,
+               COALESCE(ps.reactions_count, 0) AS reactionsCount,
+               pp.created_at AS createdAt,
+               pp.updated_at AS updatedAt,
+               json_build_object(
+                   'userId', au.user_id,
+                   'firstName', au.first_name,
+                   'lastName', au.last_name,
+                   'email', null,
+                   'profilePictureUrl', null,
+                   'bio', null
+               )::text AS author,
+               (
+                   SELECT re.reaction_type FROM reactions re
+                   WHERE re.target_id = pp.post_id
+                     AND re.author_id = :userId
+                     AND re.reaction_target_type = 'POST'
+                   LIMIT 1
+               ) AS myReactionType,
+               COALESCE(
+                   json_agg(
+                       json_build_object(
+                           'fileId', f.file_id,
+                           'fileUrl', f.file_url,
+                           'fileType', f.file_type,
+                           'fileSize', f.file_size_in_bytes,
+                           'fileName', f.file_name,
+                           'fileExtension', f.file_extension
+                       )
+                   ) FILTER (WHERE f.file_id IS NOT NULL),
+                   '[]'::json
+               )::text AS files
+           FROM
+               page_posts pp
+               LEFT JOIN post_stats ps ON ps.post_id = pp.post_id
+               INNER JOIN user_profiles au ON pp.author_id = au.user_id
+               LEFT JOIN post_files pf ON pp.post_id = pf.post_id
+               LEFT JOIN files f ON pf.file_id = f.file_id
+           GROUP BY
+               pp.post_id, pp.content, pp.publicity, pp.created_at, pp.updated_at, au.user_id, au.first_name, au.last_name,
+               ps.comments_count, ps.reactions_count
+           ORDER BY
+               pp.created_at DESC, pp.post_id DESC
+           """, nativeQuery = true)
+    List<PostDetailProjection> findUserPostsBefore(
+        @Param("userId") Long userId,
+        @Param("authorId") Long authorId,
+        @Param("cursorCreatedAt") Instant cursorCreatedAt,
+        @Param("cursorPostId") Long cursorPostId,
+        @Param("limit") int limit
+    );
+
 
     //TODO: --
     @Query("SELECT p FROM Post p WHERE p.author.userId = :userId")
@@ -114,8 +271,8 @@ public interface PostRepository extends JpaRepository<Post,Long> {
                p.post_id AS postId,
                p.content AS content,
                p.publicity AS publicity,
-               COUNT(DISTINCT cmnt.comment_id) AS commentsCount,
-               COUNT(DISTINCT re.reaction_id) AS reactionsCount,
+               COALESCE(ps.comments_count, 0) AS commentsCount,
+               COALESCE(ps.reactions_count, 0) AS reactionsCount,
                p.created_at AS createdAt,
                p.updated_at AS updatedAt,
                json_build_object(
@@ -126,7 +283,13 @@ public interface PostRepository extends JpaRepository<Post,Long> {
                    'profilePictureUrl', null,
                    'bio', null
                )::text AS author,
-               MAX(CASE WHEN re.author_id = :userId THEN re.reaction_type ELSE NULL END) AS myReactionType,
+               (
+                   SELECT re.reaction_type FROM reactions re
+                   WHERE re.target_id = p.post_id
+                     AND re.author_id = :userId
+                     AND re.reaction_target_type = 'POST'
+                   LIMIT 1
+               ) AS myReactionType,
                COALESCE(
                    json_agg(
                        json_build_object(
@@ -142,15 +305,15 @@ public interface PostRepository extends JpaRepository<Post,Long> {
                )::text AS files
            FROM
                posts p
-               LEFT JOIN comments cmnt ON p.post_id = cmnt.post_id
-               LEFT JOIN reactions re ON re.target_id = p.post_id
+               LEFT JOIN post_stats ps ON ps.post_id = p.post_id
                INNER JOIN user_profiles au ON p.author_id = au.user_id
                LEFT JOIN post_files pf ON p.post_id = pf.post_id
                LEFT JOIN files f ON pf.file_id = f.file_id
            WHERE
                p.post_id = :postId
            GROUP BY
-               p.post_id, p.content, p.publicity, p.created_at, p.updated_at, au.user_id, au.first_name, au.last_name
+               p.post_id, p.content, p.publicity, p.created_at, p.updated_at, au.user_id, au.first_name, au.last_name,
+               ps.comments_count, ps.reactions_count
            """, nativeQuery = true)
     Optional<PostDetailProjection> findPostDetailsById(@Param("userId") Long userId, @Param("postId") Long postId);
 
@@ -163,31 +326,45 @@ public interface PostRepository extends JpaRepository<Post,Long> {
         """)
     List<Post> getPostsByIds(List<Long> postIds, Pageable pageable);
 
+    /**
+     * Cold-feed fallback: the newest non-private posts of the user and their friends, older than the cursor.
+     * Each side of the friendship pair is resolved by its own (user_idN, status) index and the results are
+     * UNIONed instead of OR-ed, then every author contributes at most :limit rows via a LATERAL range scan
+     * on (author_id, created_at DESC). The bare created_at comparison keeps the predicate sargable.
+     */
     @Query(value = """
            WITH friend_ids AS (
-               SELECT CASE
-                   WHEN user_id1 = :userId THEN user_id2
-                   WHEN user_id2 = :userId THEN user_id1
-               END AS friend_id
-               FROM friendships
-               WHERE (user_id1 = :userId OR user_id2 = :userId)
-               AND status = 'ACCEPTED'
+               SELECT f.user_id2 AS friend_id
+               FROM friendships f
+               WHERE f.user_id1 = :userId AND f.status = 'ACCEPTED'
+               UNION
+               SELECT f.user_id1 AS friend_id
+               FROM friendships f
+               WHERE f.user_id2 = :userId AND f.status = 'ACCEPTED'
+               UNION
+               SELECT CAST(:userId AS BIGINT) AS friend_id
            ),
            eligible_posts AS (
-               SELECT p.post_id
-               FROM posts p
-               WHERE (p.author_id IN (SELECT friend_id FROM friend_ids) OR p.author_id = :userId)
-               AND p.publicity != 'PRIVATE'
-               AND (:cursorEpochMs IS NULL OR (EXTRACT(EPOCH FROM p.created_at) * 1000) < :cursorEpochMs)
-               ORDER BY p.created_at DESC
+               SELECT ap.post_id
+               FROM friend_ids fi
+               CROSS JOIN LATERAL (
+                   SELECT p.post_id, p.created_at
+                   FROM posts p
+                   WHERE p.author_id = fi.friend_id
+                   AND p.created_at < :cursorCreatedAt
+                   AND p.publicity != 'PRIVATE'
+                   ORDER BY p.created_at DESC, p.post_id DESC
+                   LIMIT :limit
+               ) ap
+               ORDER BY ap.created_at DESC, ap.post_id DESC
                LIMIT :limit
            )
            SELECT
                pp.post_id AS postId,
                pp.content AS content,
                pp.publicity AS publicity,
-               COUNT(DISTINCT cmnt.comment_id) AS commentsCount,
-               COUNT(DISTINCT re.reaction_id) AS reactionsCount,
+               COALESCE(ps.comments_count, 0) AS commentsCount,
+               COALESCE(ps.reactions_count, 0) AS reactionsCount,
                pp.created_at AS createdAt,
                pp.updated_at AS updatedAt,
                json_build_object(
@@ -198,7 +375,13 @@ public interface PostRepository extends JpaRepository<Post,Long> {
                    'profilePictureUrl', null,
                    'bio', null
                )::text AS author,
-               MAX(CASE WHEN re.author_id = :userId THEN re.reaction_type ELSE NULL END) AS myReactionType,
+               (
+                   SELECT re.reaction_type FROM reactions re
+                   WHERE re.target_id = pp.post_id
+                     AND re.author_id = :userId
+                     AND re.reaction_target_type = 'POST'
+                   LIMIT 1
+               ) AS myReactionType,
                COALESCE(
                    json_agg(
                        json_build_object(
@@ -215,20 +398,19 @@ public interface PostRepository extends JpaRepository<Post,Long> {
            FROM
                eligible_posts ep
                JOIN posts pp ON ep.post_id = pp.post_id
-               LEFT JOIN comments cmnt ON pp.post_id = cmnt.post_id
-               LEFT JOIN reactions re ON re.target_id = pp.post_id
+               LEFT JOIN post_stats ps ON ps.post_id = pp.post_id
                INNER JOIN user_profiles au ON pp.author_id = au.user_id
                LEFT JOIN post_files pf ON pp.post_id = pf.post_id
                LEFT JOIN files f ON pf.file_id = f.file_id
            GROUP BY
                pp.post_id, pp.content, pp.publicity, pp.created_at, pp.updated_at,
-               au.user_id, au.first_name, au.last_name
+               au.user_id, au.first_name, au.last_name, ps.comments_count, ps.reactions_count
            ORDER BY
                pp.created_at DESC
            """, nativeQuery = true)
     List<PostDetailProjection> findFriendsFeedWithCursor(
             @Param("userId") Long userId,
-            @Param("cursorEpochMs") Long cursorEpochMs,
+            @Param("cursorCreatedAt") Instant cursorCreatedAt,
             @Param("limit") int limit
     );
 
@@ -237,8 +419,8 @@ public interface PostRepository extends JpaRepository<Post,Long> {
                pp.post_id AS postId,
                pp.content AS content,
                pp.publicity AS publicity,
-               COUNT(DISTINCT cmnt.comment_id) AS commentsCount,
-               COUNT(DISTINCT re.reaction_id) AS reactionsCount,
+               COALESCE(ps.comments_count, 0) AS commentsCount,
+               COALESCE(ps.reactions_count, 0) AS reactionsCount,
                pp.created_at AS createdAt,
                pp.updated_at AS updatedAt,
                json_build_object(
@@ -249,7 +431,13 @@ public interface PostRepository extends JpaRepository<Post,Long> {
                    'profilePictureUrl', null,
                    'bio', null
                )::text AS author,
-               MAX(CASE WHEN re.author_id = :userId THEN re.reaction_type ELSE NULL END) AS myReactionType,
+               (
+                   SELECT re.reaction_type FROM reactions re
+                   WHERE re.target_id = pp.post_id
+                     AND re.author_id = :userId
+                     AND re.reaction_target_type = 'POST'
+                   LIMIT 1
+               ) AS myReactionType,
                COALESCE(
                    json_agg(
                        json_build_object(
@@ -265,15 +453,14 @@ public interface PostRepository extends JpaRepository<Post,Long> {
                )::text AS files
            FROM
                posts pp
-               LEFT JOIN comments cmnt ON pp.post_id = cmnt.post_id
-               LEFT JOIN reactions re ON re.target_id = pp.post_id
+               LEFT JOIN post_stats ps ON ps.post_id = pp.post_id
                INNER JOIN user_profiles au ON pp.author_id = au.user_id
                LEFT JOIN post_files pf ON pp.post_id = pf.post_id
                LEFT JOIN files f ON pf.file_id = f.file_id
            WHERE pp.post_id IN (:postIds)
            GROUP BY
                pp.post_id, pp.content, pp.publicity, pp.created_at, pp.updated_at,
-               au.user_id, au.first_name, au.last_name
+               au.user_id, au.first_name, au.last_name, ps.comments_count, ps.reactions_count
            """, nativeQuery = true)
     List<PostDetailProjection> findPostDetailsByIds(
             @Param("userId") Long userId,
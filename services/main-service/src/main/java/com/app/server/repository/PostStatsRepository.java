@@ -0,0 +1,42 @@
+package com.app.server.repository;
+
+import com.app.server.model.PostStats;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+@Repository
+public interface PostStatsRepository extends JpaRepository<PostStats, Long> {
+
+    /**
+     * Applies counter deltas in one upsert; the row is created on the first event for a post.
+     */
+    @Modifying
+    @Transactional
+    @Query(value = """
+           INSERT INTO post_stats (post_id, comments_count, reactions_count)
+           VALUES (:postId, GREATEST(:commentsDelta, 0), GREATEST(:reactionsDelta, 0))
+           ON CONFLICT (post_id) DO UPDATE SET
+               comments_count = GREATEST(post_stats.comments_count + :commentsDelta, 0),
+               reactions_count = GREATEST(post_stats.reactions_count + :reactionsDelta, 0)
+           """, nativeQuery = true)
+    int incrementCounters(@Param("postId") Long postId,
+                          @Param("commentsDelta") long commentsDelta,
+                          @Param("reactionsDelta") long reactionsDelta);
+
+    /**
+     * Deleting a comment cascades to its replies in the database, so the
+     * comment counter is recounted instead of decremented.
+     */
+    @Modifying
+    @Transactional
+    @Query(value = """
+           INSERT INTO post_stats (post_id, comments_count, reactions_count)
+           SELECT :postId, COUNT(*), 0 FROM comments WHERE post_id = :postId
+           ON CONFLICT (post_id) DO UPDATE SET comments_count = EXCLUDED.comments_count
+           """, nativeQuery = true)
+    int recountComments(@Param("postId") Long postId);
+}
@@ -11,6 +11,8 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -20,6 +22,11 @@ public interface UserReactionsRepository  extends JpaRepository<UserReaction, Lo
     Optional<UserReaction> findByAuthorAndTargetIdAndReactionTargetType(@Param("authorId") Long authorId,
                                                                         @Param("targetId") Long targetId,
                                                                         @Param("reactionTargetType") ReactionTargetType reactionTargetType);
+    @Query("SELECT ur FROM UserReaction ur WHERE ur.author.userId = :authorId AND ur.targetId IN :targetIds AND ur.reactionTargetType = :reactionTargetType")
+    List<UserReaction> findByAuthorAndTargetIdsAndReactionTargetType(@Param("authorId") Long authorId,
+                                                                     @Param("targetIds") Collection<Long> targetIds,
+                                                                     @Param("reactionTargetType") ReactionTargetType reactionTargetType);
+
     @Modifying
     @Transactional
     @Query("UPDATE UserReaction ur SET ur.reactionType = :reactionType WHERE ur.reactionId = :reactionId")
@@ -1,6 +1,8 @@
 package com.app.server.service;
 
+import com.app.server.dto.request.friendship.GetFriendsCursorRequestDto;
 import com.app.server.dto.response.AppUserResponseDto;
+import com.app.server.dto.response.FriendCursorPageResponseDto;
 import com.app.server.model.UserProfile;
 import org.springframework.data.domain.Page;
 
@@ -24,6 +26,8 @@ public interface FriendshipService {
 
     Page<AppUserResponseDto> getFriendsPaginated(Long currentUser, int page, int size);
 
+    FriendCursorPageResponseDto getFriendsByCursor(Long currentUser, GetFriendsCursorRequestDto requestDto);
+
     Set<AppUserResponseDto> getFriendRequests(UserProfile currentUser);
 
     int getMutualFriendsCount(UserProfile currentUserDetails, Long friendId);
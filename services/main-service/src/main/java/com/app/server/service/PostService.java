@@ -1,9 +1,11 @@
 package com.app.server.service;
 
 import com.app.server.dto.request.post.CreatePostRequestDto;
+import com.app.server.dto.request.post.GetPostsCursorRequestDto;
 import com.app.server.dto.request.post.GetRecentPostsRequestDto;
 import com.app.server.dto.request.post.UpdatePostRequestDto;
 import com.app.server.model.Post;
+import com.app.server.dto.response.PostCursorPageResponseDto;
 import com.app.server.dto.response.PostResponseDto;
 import org.springframework.stereotype.Service;
 
@@ -20,4 +22,8 @@ public interface PostService {
     boolean updatePost(Long appUser, UpdatePostRequestDto requestDto);
 
     List<PostResponseDto> getRecentPosts(Long currentUserDetails, GetRecentPostsRequestDto req);
+
+    PostCursorPageResponseDto getRecentPostsByCursor(Long currentUser, GetPostsCursorRequestDto req);
+
+    PostCursorPageResponseDto getUserPostsByCursor(Long currentUser, Long authorId, GetPostsCursorRequestDto req);
 }
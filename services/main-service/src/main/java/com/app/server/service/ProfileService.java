@@ -1,8 +1,10 @@
 package com.app.server.service;
 
 
+import com.app.server.dto.request.post.GetPostsCursorRequestDto;
 import com.app.server.dto.request.post.GetRecentPostsRequestDto;
 import com.app.server.dto.request.profile.UpdateProfileBioRequestDto;
+import com.app.server.dto.response.PostCursorPageResponseDto;
 import com.app.server.dto.response.PostResponseDto;
 import com.app.server.dto.response.profile.ProfileResponseDto;
 import com.app.server.model.UserProfile;
@@ -23,5 +25,7 @@ public interface ProfileService {
 
     List<PostResponseDto> getMyPosts(UserProfile userProfile, GetRecentPostsRequestDto requestDto);
 
+    PostCursorPageResponseDto getMyPostsByCursor(UserProfile userProfile, GetPostsCursorRequestDto requestDto);
+
     ProfileResponseDto getProfile(UserProfile userProfile);
 }
@@ -21,6 +21,7 @@ import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Optional;
 import java.util.Set;
@@ -36,6 +37,7 @@ public class CommentServiceImp implements CommentService {
     private final ApplicationEventPublisher eventPublisher;
 
     @Override
+    @Transactional
     public boolean addNewComment(UserProfile currentUser, AddNewCommentRequestDto commentDto) {
         Post post = postRepository.findById(commentDto.getPostId())
                 .orElseThrow(() -> new CustomRuntimeException("Post not found", HttpStatus.NOT_FOUND));
@@ -47,6 +49,7 @@ public class CommentServiceImp implements CommentService {
     }
 
     @Override
+    @Transactional
     public boolean deleteComment(UserProfile currentUser, Long commentId) {
         Comment comment = this.getCommentById(commentId);
         int rowsAffected = commentRepository.deleteByIdAndAuthorId(currentUser.getUserId(), commentId);
@@ -58,6 +61,7 @@ public class CommentServiceImp implements CommentService {
     }
 
     @Override
+    @Transactional
     public boolean updateComment(UserProfile userProfile, UpdateCommentRequestDto requestDto){
         Optional<Comment> comment = commentRepository.findByIdAndAuthorId(userProfile.getUserId(), requestDto.getCommentId());
         if(comment.isEmpty()){
@@ -80,6 +84,7 @@ public class CommentServiceImp implements CommentService {
     }
 
     @Override
+    @Transactional
     public boolean replayOnComment(UserProfile userProfile, AddNewCommentRequestDto addNewCommentRequestDto, Long commentId) {
         Comment parentComment = this.getCommentById(commentId);
         Post post = parentComment.getPost();
@@ -1,12 +1,17 @@
 package com.app.server.service.impl;
 
+import com.app.server.config.FeedProperties;
+import com.app.server.dto.request.friendship.GetFriendsCursorRequestDto;
 import com.app.server.dto.response.AppUserResponseDto;
+import com.app.server.dto.response.FriendCursorPageResponseDto;
 import com.app.server.enums.FriendshipActionType;
 import com.app.server.enums.FriendshipStatus;
 import com.app.server.enums.NotificationType;
 import com.app.server.event.app.domain.FeedFriendshipDomainEvent;
 import com.app.server.event.app.domain.FriendshipDomainEvent;
 import com.app.server.exception.CustomRuntimeException;
+import com.app.server.feed.FriendGraphCache;
+import com.app.server.feed.FriendSuggestionEngine;
 import com.app.server.mapper.FriendshipMapper;
 import com.app.server.mapper.UserMapper;
 import com.app.server.model.Friendship;
@@ -14,6 +19,7 @@ import com.app.server.model.UserProfile;
 import com.app.server.repository.FriendshipServiceRepository;
 import com.app.server.repository.UserProfileRepository;
 import com.app.server.service.FriendshipService;
+import com.app.server.utils.pagination.FriendCursor;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.ApplicationEventPublisher;
@@ -23,10 +29,16 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -40,6 +52,9 @@ public class FriendshipServiceImpl implements FriendshipService {
     private final UserMapper userMapper;
     private final com.app.server.mapper.UserProjectionMapper userProjectionMapper;
     private final ApplicationEventPublisher eventPublisher;
+    private final FriendSuggestionEngine friendSuggestionEngine;
+    private final FriendGraphCache friendGraphCache;
+    private final FeedProperties feedProperties;
 
     @Override
     public boolean addFriend(UserProfile currentUser, Long friendId) {
@@ -56,6 +71,7 @@ public class FriendshipServiceImpl implements FriendshipService {
     }
 
     @Override
+    @Transactional
     public boolean removeFriend(UserProfile currentUser, Long friendId) {
         Friendship optionalFriendship = friendshipServiceRepository.findFriendshipByTwoUsers(currentUser.getUserId(), friendId)
                 .orElseThrow(() -> new CustomRuntimeException("You are not friends", HttpStatus.NOT_FOUND));
@@ -71,6 +87,7 @@ public class FriendshipServiceImpl implements FriendshipService {
     }
 
     @Override
+    @Transactional
     public boolean acceptFriend(UserProfile currentUser, Long friendId) {
 
         Friendship friendship = friendshipServiceRepository.findFriendshipByTwoUsers(currentUser.getUserId(), friendId)
@@ -102,6 +119,7 @@ public class FriendshipServiceImpl implements FriendshipService {
     }
 
     @Override
+    @Transactional
     public boolean blockFriend(UserProfile currentUser, Long friendId) {
         Friendship friendship = friendshipServiceRepository.findFriendshipByTwoUsers(currentUser.getUserId(), friendId)
                 .orElseThrow(() -> new CustomRuntimeException("Friend request not found", HttpStatus.NOT_FOUND));
@@ -117,12 +135,16 @@ public class FriendshipServiceImpl implements FriendshipService {
     }
 
     @Override
+    @Transactional
     public boolean unblockFriend(UserProfile currentUser, Long friendId) {
         Friendship friendship = friendshipServiceRepository.findFriendshipByTwoUsers(currentUser.getUserId(), friendId)
                 .orElseThrow(() -> new CustomRuntimeException("Friend request not found", HttpStatus.NOT_FOUND));
 
         if(isMyFriend(currentUser, Optional.of(friendship))) {
             friendshipServiceRepository.updateFriendshipStatusById(friendship.getFriendshipId(), FriendshipStatus.ACCEPTED);
+            eventPublisher.publishEvent(new FeedFriendshipDomainEvent(
+                    currentUser.getUserId(), FriendshipActionType.ACCEPTED,
+                    currentUser.getUserId(), friendId));
             return true;
         }
         throw new CustomRuntimeException("Friend request not found", HttpStatus.NOT_FOUND);
@@ -152,12 +174,37 @@ public class FriendshipServiceImpl implements FriendshipService {
                 .map(userMapper::mapToAppUserResponseDto)
                 .collect(Collectors.toList());
 
-        // Get total count for pagination
-        long totalCount = friendshipServiceRepository.findFriendsByUserIdAndStatus(
-                currentUser, FriendshipStatus.ACCEPTED.toString()
-        ).size();
+        return new PageImpl<>(friendDtos, pageable, countFriends(currentUser));
+    }
 
-        return new PageImpl<>(friendDtos, pageable, totalCount);
+    @Override
+    public FriendCursorPageResponseDto getFriendsByCursor(Long currentUser, GetFriendsCursorRequestDto requestDto) {
+        FriendCursor cursor = FriendCursor.decode(requestDto.getCursor());
+        int size = requestDto.getSize();
+
+        List<UserProfile> rows = friendshipServiceRepository.findFriendsAfter(
+                currentUser, cursor.getFirstName(), cursor.getLastName(), cursor.getUserId(), size + 1);
+
+        boolean hasMore = rows.size() > size;
+        List<UserProfile> page = hasMore ? rows.subList(0, size) : rows;
+
+        String nextCursor = null;
+        if (hasMore) {
+            UserProfile last = page.get(page.size() - 1);
+            nextCursor = new FriendCursor(last.getFirstName(), last.getLastName(), last.getUserId()).encode();
+        }
+
+        return FriendCursorPageResponseDto.builder()
+                .friends(page.stream().map(userMapper::mapToAppUserResponseDto).collect(Collectors.toList()))
+                .totalCount(countFriends(currentUser))
+                .nextCursor(nextCursor)
+                .hasMore(hasMore)
+                .build();
+    }
+
+    // the friend graph keeps every user's accepted friend ids, so the total is an array length
+    private long countFriends(Long userId) {
+        return friendGraphCache.getFriendIds(userId).length;
     }
 
     @Override
@@ -167,12 +214,13 @@ public class FriendshipServiceImpl implements FriendshipService {
 
     @Override
     public int getMutualFriendsCount(UserProfile currentUserDetails, Long friendId) {
-        return friendshipServiceRepository.getCountOfMutualFriends(currentUserDetails.getUserId(), friendId);
+        return friendSuggestionEngine.countMutualFriends(currentUserDetails.getUserId(), friendId);
     }
 
     @Override
     public Set<AppUserResponseDto> getMutualFriends(UserProfile currentUserDetails, Long friendId) {
-        return friendshipServiceRepository.findMutualFriends(currentUserDetails.getUserId(), friendId)
+        List<Long> mutualFriendIds = friendSuggestionEngine.findMutualFriendIds(currentUserDetails.getUserId(), friendId);
+        return userProfileRepository.findAllById(mutualFriendIds)
                 .stream()
                 .map(userMapper::mapToAppUserResponseDto)
                 .collect(Collectors.toSet());
@@ -180,10 +228,19 @@ public class FriendshipServiceImpl implements FriendshipService {
 
     @Override
     public Set<AppUserResponseDto> suggestFriends(Long currentUserDetails) {
-        // ✅ Type-safe projection mapping - IDE autocomplete works!
-        return friendshipServiceRepository.findFriendSuggestions(currentUserDetails).stream()
-                .map(userProjectionMapper::toAppUserResponseDto)
-                .collect(Collectors.toSet());
+        Set<Long> excluded = new HashSet<>(friendshipServiceRepository.findRelatedUserIds(currentUserDetails));
+        List<Long> rankedIds = friendSuggestionEngine.suggestFriendIds(
+                currentUserDetails, excluded, feedProperties.getFriendGraph().getSuggestionLimit());
+
+        Map<Long, UserProfile> usersById = userProfileRepository.findAllById(rankedIds).stream()
+                .collect(Collectors.toMap(UserProfile::getUserId, Function.identity()));
+
+        // keep the ranking order
+        return rankedIds.stream()
+                .map(usersById::get)
+                .filter(Objects::nonNull)
+                .map(userMapper::mapToAppUserResponseDto)
+                .collect(Collectors.toCollection(LinkedHashSet::new));
     }
 
     private Set<AppUserResponseDto> getFriendsByStatus(UserProfile currentUser, FriendshipStatus status) {
@@ -1,6 +1,7 @@
 package com.app.server.service.impl;
 
 import com.app.server.dto.request.post.CreatePostRequestDto;
+import com.app.server.dto.request.post.GetPostsCursorRequestDto;
 import com.app.server.dto.request.post.GetRecentPostsRequestDto;
 import com.app.server.dto.request.post.UpdatePostRequestDto;
 import com.app.server.enums.PostActionType;
@@ -10,13 +11,16 @@ import com.app.server.mapper.FileMapper;
 import com.app.server.mapper.PostMapper;
 import com.app.server.model.File;
 import com.app.server.model.Post;
+import com.app.server.dto.response.PostCursorPageResponseDto;
 import com.app.server.dto.response.PostResponseDto;
 import com.app.server.model.UserProfile;
+import com.app.server.projection.PostDetailProjection;
 import com.app.server.repository.FileRepository;
 import com.app.server.repository.PostRepository;
 import com.app.server.repository.UserProfileRepository;
 import com.app.server.service.PostService;
 import com.app.server.service.UserService;
+import com.app.server.utils.pagination.PostCursor;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.ApplicationEventPublisher;
@@ -117,6 +121,43 @@ public class PostServiceImp implements PostService {
                 .collect(Collectors.toList());
     }
 
+    @Override
+    public PostCursorPageResponseDto getRecentPostsByCursor(Long user, GetPostsCursorRequestDto req) {
+        PostCursor cursor = PostCursor.decode(req.getCursor());
+        List<PostDetailProjection> rows = postRepository.findRecentPostsBefore(
+                user, cursor.getCreatedAt(), cursor.getPostId(), req.getSize() + 1);
+        return toCursorPage(rows, req.getSize());
+    }
+
+    @Override
+    public PostCursorPageResponseDto getUserPostsByCursor(Long user, Long authorId, GetPostsCursorRequestDto req) {
+        PostCursor cursor = PostCursor.decode(req.getCursor());
+        List<PostDetailProjection> rows = postRepository.findUserPostsBefore(
+                user, authorId, cursor.getCreatedAt(), cursor.getPostId(), req.getSize() + 1);
+        return toCursorPage(rows, req.getSize());
+    }
+
+    /**
+     * Rows are fetched with one extra element; its presence tells whether another page exists
+     * without a separate COUNT query.
+     */
+    private PostCursorPageResponseDto toCursorPage(List<PostDetailProjection> rows, int size) {
+        boolean hasMore = rows.size() > size;
+        List<PostDetailProjection> page = hasMore ? rows.subList(0, size) : rows;
+
+        String nextCursor = null;
+        if (hasMore) {
+            PostDetailProjection last = page.get(page.size() - 1);
+            nextCursor = new PostCursor(last.getCreatedAt(), last.getPostId()).encode();
+        }
+
+        return PostCursorPageResponseDto.builder()
+                .posts(page.stream().map(postMapper::mapProjectionToPostResponseDto).collect(Collectors.toList()))
+                .nextCursor(nextCursor)
+                .hasMore(hasMore)
+                .build();
+    }
+
     private Set<File> uploadFiles(MultipartFile[] multipartFiles){
         if(multipartFiles == null || multipartFiles.length == 0){
             return Collections.emptySet();
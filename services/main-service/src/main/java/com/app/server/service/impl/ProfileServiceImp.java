@@ -1,7 +1,9 @@
 package com.app.server.service.impl;
 
+import com.app.server.dto.request.post.GetPostsCursorRequestDto;
 import com.app.server.dto.request.post.GetRecentPostsRequestDto;
 import com.app.server.dto.request.profile.UpdateProfileBioRequestDto;
+import com.app.server.dto.response.PostCursorPageResponseDto;
 import com.app.server.dto.response.PostResponseDto;
 import com.app.server.dto.response.profile.ProfileResponseDto;
 import com.app.server.exception.CustomRuntimeException;
@@ -62,6 +64,11 @@ public class ProfileServiceImp implements ProfileService {
         return this.postService.getRecentPosts(userProfile.getUserId(), requestDto);
     }
 
+    @Override
+    public PostCursorPageResponseDto getMyPostsByCursor(UserProfile userProfile, GetPostsCursorRequestDto requestDto) {
+        return this.postService.getUserPostsByCursor(userProfile.getUserId(), userProfile.getUserId(), requestDto);
+    }
+
     @Override
     public ProfileResponseDto getProfile(UserProfile userProfile) {
         log.info("Getting profile for user: {}", userProfile.getEmail());
@@ -62,7 +62,7 @@ public class ReactionServiceImpl implements ReactionService {
             log.info("Reaction action [{}] applied for user [{}] on post [{}]", actionTaken, currentUserId, postId);
 
             publishReactionEvent(currentUserId, actionTaken, request.getReactionType(),
-                    ReactionTargetType.POST, postId, postId);
+                    ReactionTargetType.POST, postId, postId, existingReaction.isPresent());
         } catch (DataAccessException ex) {
             log.error("Database error while processing reaction for user [{}] on post [{}]: {}", currentUserId, postId, ex.getMessage(), ex);
             throw new CustomRuntimeException("Failed to process reaction on post", HttpStatus.INTERNAL_SERVER_ERROR);
@@ -95,7 +95,7 @@ public class ReactionServiceImpl implements ReactionService {
             log.info("Reaction action [{}] applied for user [{}] on comment [{}]", actionTaken, currentUserId, commentId);
 
             publishReactionEvent(currentUserId, actionTaken, request.getReactionType(),
-                    ReactionTargetType.COMMENT, commentId, comment.getPost().getPostId());
+                    ReactionTargetType.COMMENT, commentId, comment.getPost().getPostId(), existingReaction.isPresent());
         } catch (DataAccessException ex) {
             log.error("Database error while processing reaction for user [{}] on comment [{}]: {}", currentUserId, commentId, ex.getMessage(), ex);
             throw new CustomRuntimeException("Failed to process reaction on comment", HttpStatus.INTERNAL_SERVER_ERROR);
@@ -141,11 +141,13 @@ public class ReactionServiceImpl implements ReactionService {
 
     private void publishReactionEvent(Long reactorUserId, ReactionActionType actionType,
                                        com.app.server.enums.ReactionType reactionType,
-                                       ReactionTargetType targetType, Long targetId, Long postId) {
+                                       ReactionTargetType targetType, Long targetId, Long postId,
+                                       boolean hadExistingReaction) {
         log.debug("Publishing reaction event: user [{}], action [{}], target {} [{}]", reactorUserId, actionType, targetType, targetId);
         eventPublisher.publishEvent(new ReactionDomainEvent(
                 reactorUserId, actionType,
                 actionType == ReactionActionType.REMOVED ? null : reactionType,
-                targetType, targetId, postId));
+                targetType, targetId, postId,
+                actionType == ReactionActionType.ADDED && hadExistingReaction));
     }
 }
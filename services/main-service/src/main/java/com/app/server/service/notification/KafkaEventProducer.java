@@ -10,4 +10,6 @@ public interface KafkaEventProducer {
     void sendNotification(NotificationEvent notificationEvent);
 
     void sendEventDto(Serializable eventDto, KafkaTopics topic);
+
+    void sendEventDto(String key, Serializable eventDto, KafkaTopics topic);
 }
\ No newline at end of file
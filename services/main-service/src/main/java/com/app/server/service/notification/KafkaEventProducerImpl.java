@@ -38,4 +38,18 @@ public class KafkaEventProducerImpl implements KafkaEventProducer {
             throw e;
         }
     }
+
+    /**
+     * Events with the same key land on the same partition, so consumers see them in send order
+     */
+    @Override
+    public void sendEventDto(String key, Serializable eventDto, KafkaTopics topic) {
+        try {
+            kafkaTemplate.send(topic.getValue().toLowerCase(), key, eventDto);
+            log.info("Event DTO sent to topic '{}' with key '{}': {}", topic.getValue(), key, eventDto.getClass().getSimpleName());
+        } catch (Exception e) {
+            log.error("Failed to send event DTO to topic '{}': {}", topic.getValue(), e.getMessage(), e);
+            throw e;
+        }
+    }
 }
\ No newline at end of file
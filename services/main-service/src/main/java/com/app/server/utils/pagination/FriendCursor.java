@@ -0,0 +1,51 @@
+package com.app.server.utils.pagination;
+
+import com.app.server.exception.CustomRuntimeException;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.http.HttpStatus;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Keyset position in a friend list ordered by (first_name, last_name, user_id).
+ * Clients only ever see it as an opaque URL-safe token.
+ */
+@Getter
+@AllArgsConstructor
+public final class FriendCursor {
+
+    /** Position before the first friend; used when the client sends no cursor. */
+    public static final FriendCursor START = new FriendCursor("", "", 0L);
+
+    private final String firstName;
+    private final String lastName;
+    private final Long userId;
+
+    public static FriendCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return START;
+        }
+        try {
+            String[] parts = token.split("\\.", -1);
+            return new FriendCursor(decodePart(parts[1]), decodePart(parts[2]), Long.parseLong(decodePart(parts[0])));
+        } catch (RuntimeException e) {
+            throw new CustomRuntimeException("Invalid cursor", HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    public String encode() {
+        // names may contain any character, so each part is encoded on its own
+        return encodePart(String.valueOf(userId)) + "." + encodePart(firstName) + "." + encodePart(lastName);
+    }
+
+    private static String encodePart(String value) {
+        String raw = value != null ? value : "";
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String decodePart(String part) {
+        return new String(Base64.getUrlDecoder().decode(part), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,44 @@
+package com.app.server.utils.pagination;
+
+import com.app.server.exception.CustomRuntimeException;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.http.HttpStatus;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+
+/**
+ * Keyset position in a (created_at DESC, post_id DESC) ordered post list.
+ * Clients only ever see it as an opaque URL-safe token.
+ */
+@Getter
+@AllArgsConstructor
+public final class PostCursor {
+
+    /** Position before the newest post; used when the client sends no cursor. */
+    public static final PostCursor START = new PostCursor(Instant.parse("9999-12-31T23:59:59Z"), Long.MAX_VALUE);
+
+    private final Instant createdAt;
+    private final Long postId;
+
+    public static PostCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return START;
+        }
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8).split(":");
+            return new PostCursor(
+                    Instant.ofEpochSecond(Long.parseLong(parts[0]), Long.parseLong(parts[1])),
+                    Long.parseLong(parts[2]));
+        } catch (RuntimeException e) {
+            throw new CustomRuntimeException("Invalid cursor", HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    public String encode() {
+        String raw = createdAt.getEpochSecond() + ":" + createdAt.getNano() + ":" + postId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
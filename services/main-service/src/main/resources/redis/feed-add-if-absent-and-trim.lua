@@ -0,0 +1,14 @@
+-- Adds a post to every feed ZSET in KEYS that does not already contain it,
+-- then trims only the feeds that grew. Runs atomically on the server.
+-- ARGV[1] = post id (member), ARGV[2] = score (epoch ms), ARGV[3] = max feed size
+local added = 0
+local trimTo = -(tonumber(ARGV[3]) + 1)
+
+for _, feedKey in ipairs(KEYS) do
+    if redis.call('ZADD', feedKey, 'NX', ARGV[2], ARGV[1]) == 1 then
+        redis.call('ZREMRANGEBYRANK', feedKey, 0, trimTo)
+        added = added + 1
+    end
+end
+
+return added
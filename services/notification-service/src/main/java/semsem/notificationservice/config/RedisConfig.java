@@ -0,0 +1,32 @@
+package semsem.notificationservice.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import semsem.notificationservice.listener.PushDeliveryListener;
+import semsem.notificationservice.service.NotificationPushService;
+
+@Configuration
+public class RedisConfig {
+
+    @Value("${notifications.instance-id}")
+    private String instanceId;
+
+    /**
+     * Subscribes this instance to its own push channel so other nodes can hand it
+     * messages for users whose event stream is connected here.
+     */
+    @Bean
+    public RedisMessageListenerContainer redisMessageListenerContainer(RedisConnectionFactory connectionFactory,
+                                                                       PushDeliveryListener pushDeliveryListener,
+                                                                       NotificationPushService notificationPushService) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(pushDeliveryListener,
+                new ChannelTopic(notificationPushService.pushChannelFor(instanceId)));
+        return container;
+    }
+}
@@ -7,13 +7,19 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import semsem.notificationservice.controller.swagger.INotificationApi;
 import semsem.notificationservice.dto.NotificationPageResponse;
 import semsem.notificationservice.dto.NotificationResponse;
+import semsem.notificationservice.dto.NotificationSliceResponse;
 import semsem.notificationservice.enums.NotificationType;
+import semsem.notificationservice.service.NotificationPushService;
 import semsem.notificationservice.service.NotificationService;
 
 @RestController
@@ -22,7 +28,21 @@ import semsem.notificationservice.service.NotificationService;
 @Slf4j
 public class NotificationController implements INotificationApi {
 
+    // offset listings read page * size + size rows from each source, so the page size is capped
+    private static final int MAX_PAGE_SIZE = 100;
+
     private final NotificationService notificationService;
+    private final NotificationPushService notificationPushService;
+
+    @Override
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
+    public SseEmitter streamNotifications() {
+
+        Long currentUserId = SecurityUtils.getCurrentUserId();
+        log.debug("Opening notification stream for user: {}", currentUserId);
+        return notificationPushService.connect(currentUserId);
+    }
 
     @Override
     @GetMapping
@@ -33,11 +53,25 @@ public class NotificationController implements INotificationApi {
 
         Long currentUserId = SecurityUtils.getCurrentUserId();
         log.debug("Fetching notifications for user: {}, page: {}, size: {}", currentUserId, page, size);
-        Pageable pageable = PageRequest.of(page, size);
+        Pageable pageable = pageRequest(page, size);
         NotificationPageResponse response = notificationService.getUserNotifications(currentUserId, pageable);
         return ResponseEntity.ok(MyApiResponse.success("Notifications retrieved successfully", response));
     }
 
+    @Override
+    @GetMapping("/scroll")
+    @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
+    public ResponseEntity<MyApiResponse<NotificationSliceResponse>> getNotificationSlice(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "false") boolean unreadOnly) {
+
+        Long currentUserId = SecurityUtils.getCurrentUserId();
+        log.debug("Fetching notification slice for user: {}, size: {}, unreadOnly: {}", currentUserId, size, unreadOnly);
+        NotificationSliceResponse response = notificationService.getNotificationSlice(currentUserId, cursor, size, unreadOnly);
+        return ResponseEntity.ok(MyApiResponse.success("Notifications retrieved successfully", response));
+    }
+
     @Override
     @GetMapping("/unread")
     @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
@@ -47,7 +81,7 @@ public class NotificationController implements INotificationApi {
 
         Long currentUserId = SecurityUtils.getCurrentUserId();
         log.debug("Fetching unread notifications for user: {}", currentUserId);
-        Pageable pageable = PageRequest.of(page, size);
+        Pageable pageable = pageRequest(page, size);
         NotificationPageResponse response = notificationService.getUnreadNotifications(currentUserId, pageable);
         return ResponseEntity.ok(MyApiResponse.success("Unread notifications retrieved successfully", response));
     }
@@ -62,7 +96,7 @@ public class NotificationController implements INotificationApi {
 
         Long currentUserId = SecurityUtils.getCurrentUserId();
         log.debug("Fetching notifications by type: {} for user: {}", type, currentUserId);
-        Pageable pageable = PageRequest.of(page, size);
+        Pageable pageable = pageRequest(page, size);
         Page<NotificationResponse> notifications = notificationService.getNotificationsByType(currentUserId, type, pageable);
         return ResponseEntity.ok(MyApiResponse.success("Notifications retrieved successfully", notifications));
     }
@@ -133,4 +167,11 @@ public class NotificationController implements INotificationApi {
         int deletedCount = notificationService.cleanupOldNotifications(daysOld);
         return ResponseEntity.ok(MyApiResponse.success("Cleanup completed", deletedCount));
     }
-}
\ No newline at end of file
+
+    private Pageable pageRequest(int page, int size) {
+        if (page < 0 || size < 1) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Page must not be negative and size must be at least 1");
+        }
+        return PageRequest.of(page, Math.min(size, MAX_PAGE_SIZE));
+    }
+}
@@ -13,14 +13,25 @@ import org.springframework.data.domain.Page;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import semsem.notificationservice.dto.NotificationPageResponse;
 import semsem.notificationservice.dto.NotificationResponse;
+import semsem.notificationservice.dto.NotificationSliceResponse;
 import semsem.notificationservice.enums.NotificationType;
 
 @Tag(name = "Notification Management", description = "APIs for managing user notifications")
 @SecurityRequirement(name = "jwtAuth")
 public interface INotificationApi {
 
+    @Operation(summary = "Stream notifications", description = "Opens a server-sent-events stream that pushes new notifications and unread count changes for the authenticated user")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Stream opened",
+            content = @Content(mediaType = "text/event-stream")),
+        @ApiResponse(responseCode = "401", description = "Unauthorized",
+            content = @Content(schema = @Schema(implementation = MyApiResponse.class)))
+    })
+    SseEmitter streamNotifications();
+
     @Operation(summary = "Get all notifications for current user", description = "Retrieves paginated notifications for the authenticated user")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Notifications retrieved successfully",
@@ -32,6 +43,20 @@ public interface INotificationApi {
             @Parameter(description = "Page number (0-indexed)") @RequestParam(defaultValue = "0") int page,
             @Parameter(description = "Page size") @RequestParam(defaultValue = "20") int size);
 
+    @Operation(summary = "Scroll notifications", description = "Retrieves a slice of notifications for the authenticated user after a cursor, newest first. Pass the returned nextCursor to get the following slice")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Notifications retrieved successfully",
+            content = @Content(schema = @Schema(implementation = MyApiResponse.class))),
+        @ApiResponse(responseCode = "400", description = "Invalid cursor",
+            content = @Content(schema = @Schema(implementation = MyApiResponse.class))),
+        @ApiResponse(responseCode = "401", description = "Unauthorized",
+            content = @Content(schema = @Schema(implementation = MyApiResponse.class)))
+    })
+    ResponseEntity<MyApiResponse<NotificationSliceResponse>> getNotificationSlice(
+            @Parameter(description = "Cursor from the previous slice; omit for the newest notifications") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Slice size") @RequestParam(defaultValue = "20") int size,
+            @Parameter(description = "Only unread notifications") @RequestParam(defaultValue = "false") boolean unreadOnly);
+
     @Operation(summary = "Get unread notifications", description = "Retrieves paginated unread notifications for the authenticated user")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Unread notifications retrieved successfully",
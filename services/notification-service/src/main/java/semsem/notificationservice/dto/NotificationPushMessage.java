@@ -0,0 +1,39 @@
+package semsem.notificationservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Everything that happened to one user's notifications within a push window.
+ * Clients apply it as: reset the badge to zero if {@code unreadReset}, then add {@code unreadDelta}.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class NotificationPushMessage {
+    private Long userId;
+    @Builder.Default
+    private List<NotificationResponse> notifications = new ArrayList<>();
+    private long unreadDelta;
+    private boolean unreadReset;
+
+    /**
+     * Fold a later message for the same user into this one
+     */
+    public NotificationPushMessage merge(NotificationPushMessage later) {
+        notifications.addAll(later.notifications);
+        if (later.unreadReset) {
+            unreadReset = true;
+            unreadDelta = later.unreadDelta;
+        } else {
+            unreadDelta += later.unreadDelta;
+        }
+        return this;
+    }
+}
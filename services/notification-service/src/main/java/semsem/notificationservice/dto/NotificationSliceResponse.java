@@ -0,0 +1,19 @@
+package semsem.notificationservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class NotificationSliceResponse {
+    private List<NotificationResponse> notifications;
+    private String nextCursor;
+    private boolean hasNext;
+    private long unreadCount;
+}
@@ -0,0 +1,26 @@
+package semsem.notificationservice.dto;
+
+import semsem.notificationservice.enums.NotificationType;
+
+import java.time.LocalDateTime;
+
+/**
+ * Columns a notification list needs; the receiver is known from the query and read time is not shown
+ */
+public interface NotificationSummary {
+    Long getId();
+
+    NotificationType getType();
+
+    String getMessage();
+
+    Long getSenderId();
+
+    Boolean getIsRead();
+
+    LocalDateTime getCreatedAt();
+
+    Long getReferenceId();
+
+    String getReferenceType();
+}
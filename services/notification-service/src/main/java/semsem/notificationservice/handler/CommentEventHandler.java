@@ -94,7 +94,6 @@ public class CommentEventHandler {
             notificationService.createNotification(notificationEvent, event.getCommentId(), "COMMENT");
             log.debug("Notification persisted to database");
 
-            // TODO: Send real-time notification via WebSocket
             // TODO: Send push notification if enabled
 
             log.info("Successfully notified user {} about new comment {}",
@@ -23,7 +23,6 @@ public class CommentedOnPostHandler  implements NotificationHandler {
         notificationService.createNotification(event, event.getSenderId(), this.getNotificationType().toString());
         log.debug("Notification persisted to database");
 
-        // TODO: Send real-time notification via WebSocket
         // TODO: Send push notification if enabled
     }
 
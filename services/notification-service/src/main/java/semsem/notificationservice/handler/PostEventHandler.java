@@ -8,10 +8,16 @@ import semsem.notificationservice.client.MainServiceClient;
 import semsem.notificationservice.dto.NotificationEvent;
 import semsem.notificationservice.dto.PostEventDto;
 import semsem.notificationservice.enums.NotificationType;
-import semsem.notificationservice.repository.NotificationRepository;
+import semsem.notificationservice.mapper.NotificationMapper;
+import semsem.notificationservice.model.BroadcastNotification;
+import semsem.notificationservice.repository.PushConnectionRepository;
+import semsem.notificationservice.repository.UnreadCounterRepository;
+import semsem.notificationservice.service.BroadcastNotificationService;
+import semsem.notificationservice.service.NotificationPushService;
 import semsem.notificationservice.service.NotificationService;
 
 import java.util.List;
+import java.util.Set;
 
 /**
  * Handler for post-related events
@@ -21,8 +27,13 @@ import java.util.List;
 @RequiredArgsConstructor
 public class PostEventHandler {
     private static final Logger log = LoggerFactory.getLogger(PostEventHandler.class);
+    private static final int PUSH_LOOKUP_CHUNK_SIZE = 500;
     private final MainServiceClient mainServiceClient;
     private final NotificationService notificationService;
+    private final BroadcastNotificationService broadcastNotificationService;
+    private final NotificationPushService notificationPushService;
+    private final PushConnectionRepository pushConnectionRepository;
+    private final UnreadCounterRepository unreadCounterRepository;
     /**
      * Handle post events based on action type
      *
@@ -61,6 +72,20 @@ public class PostEventHandler {
             String authorName = event.getPost().getAuthor().getFirstName() + " "
                     + event.getPost().getAuthor().getLastName();
 
+            NotificationEvent notificationEvent = NotificationEvent.builder()
+                    .type(NotificationType.POSTED_NEW_CONTENT)
+                    .message(authorName + " posted new content")
+                    .senderId(authorId)
+                    .build();
+
+            // Fan-out on read: one row for the post, friends see it when they read their notifications
+            if (broadcastNotificationService.isFanOutOnRead(NotificationType.POSTED_NEW_CONTENT)) {
+                BroadcastNotification broadcast = broadcastNotificationService.createBroadcast(notificationEvent, event.getPostId(), "POST");
+                log.info("Stored broadcast notification for new post {} from user {}", event.getPostId(), authorId);
+                pushToConnectedFriends(broadcast, mainServiceClient.getFriendIds(authorId));
+                return;
+            }
+
             // Fetch friends to notify
             List<Long> friendIds = mainServiceClient.getFriendIds(authorId);
 
@@ -72,41 +97,40 @@ public class PostEventHandler {
             log.info("Notifying {} friends about new post {} from user {}",
                      friendIds.size(), event.getPostId(), authorId);
 
-            //TODO: handle batching if friendIds is large.
             //TODO: consider async processing for scalability.
-            //TODO: either fanout early or late depending on use case.
-            // Fan-out: Create notification for each friend
-            friendIds.forEach(friendId -> {
-                try {
-                    String message = authorName + " posted new content";
-
-                    NotificationEvent notificationEvent = NotificationEvent.builder()
-                            .type(NotificationType.POSTED_NEW_CONTENT)
-                            .message(message)
-                            .senderId(authorId)
-                            .receiverId(friendId)
-                            .build();
-
-                    // Save notification to database
-                    notificationService.createNotification(notificationEvent, event.getPostId(), "POST");
-                    log.debug("Notification persisted for user {} about post {}", friendId, event.getPostId());
-
-                    // TODO: Send real-time notification via WebSocket
-                    // TODO: Send push notification if enabled
-
-                } catch (Exception e) {
-                    log.error("Error creating notification for user {} about post {}: {}",
-                            friendId, event.getPostId(), e.getMessage());
-                }
-            });
-
-            log.info("Successfully notified {} friends about new post {}", friendIds.size(), event.getPostId());
+            // Fan-out on write: one notification per friend, inserted in JDBC batches within a single transaction
+            int created = notificationService.createNotifications(notificationEvent, friendIds, event.getPostId(), "POST");
+
+            // TODO: Send push notification if enabled
+
+            log.info("Successfully notified {} friends about new post {}", created, event.getPostId());
 
         } catch (Exception e) {
             log.error("Error handling post creation for postId={}: {}", event.getPostId(), e.getMessage(), e);
         }
     }
 
+    /**
+     * Only friends with an open push stream get the broadcast pushed, looked up a chunk at a time; the rest
+     * see it on their next read. The pushed clients are about to show a count one higher than the cached
+     * broadcast counter, so that counter is dropped and recounted on their next read.
+     */
+    private void pushToConnectedFriends(BroadcastNotification broadcast, List<Long> friendIds) {
+        int pushed = 0;
+        for (int from = 0; from < friendIds.size(); from += PUSH_LOOKUP_CHUNK_SIZE) {
+            List<Long> chunk = friendIds.subList(from, Math.min(from + PUSH_LOOKUP_CHUNK_SIZE, friendIds.size()));
+            Set<Long> connected = pushConnectionRepository.findInstances(chunk).keySet();
+            if (connected.isEmpty()) {
+                continue;
+            }
+            unreadCounterRepository.evictBroadcast(connected);
+            connected.forEach(friendId ->
+                    notificationPushService.pushNotification(NotificationMapper.toResponse(broadcast, friendId, false)));
+            pushed += connected.size();
+        }
+        log.debug("Pushed broadcast {} to {} of {} friends", broadcast.getId(), pushed, friendIds.size());
+    }
+
     /**
      * Handle post update - optionally notify friends
      */
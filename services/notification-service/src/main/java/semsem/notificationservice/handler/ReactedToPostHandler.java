@@ -23,7 +23,6 @@ public class ReactedToPostHandler implements NotificationHandler {
         notificationService.createNotification(event, event.getSenderId(), "POST");
         log.debug("Notification persisted to database");
 
-        // TODO: Send real-time notification via WebSocket
         // TODO: Send push notification if enabled
     }
 
@@ -0,0 +1,40 @@
+package semsem.notificationservice.listener;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.stereotype.Component;
+import semsem.notificationservice.dto.NotificationPushMessage;
+import semsem.notificationservice.service.NotificationPushService;
+
+import java.util.List;
+
+/**
+ * Receives push messages routed to this instance by other nodes and writes them
+ * to the recipients' local event streams.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PushDeliveryListener implements MessageListener {
+
+    private static final TypeReference<List<NotificationPushMessage>> MESSAGE_LIST = new TypeReference<>() {
+    };
+
+    private final NotificationPushService notificationPushService;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        try {
+            List<NotificationPushMessage> messages = objectMapper.readValue(message.getBody(), MESSAGE_LIST);
+            notificationPushService.deliverLocally(messages);
+            log.debug("Delivered {} routed push messages", messages.size());
+        } catch (Exception e) {
+            log.error("Failed to deliver routed push messages: {}", e.getMessage(), e);
+        }
+    }
+}
@@ -2,6 +2,8 @@ package semsem.notificationservice.mapper;
 
 import semsem.notificationservice.dto.NotificationEvent;
 import semsem.notificationservice.dto.NotificationResponse;
+import semsem.notificationservice.dto.NotificationSummary;
+import semsem.notificationservice.model.BroadcastNotification;
 import semsem.notificationservice.model.Notification;
 
 public class NotificationMapper {
@@ -28,6 +30,40 @@ public class NotificationMapper {
                 .build();
     }
 
+    /**
+     * Convert a list projection to a response; read time is not part of the projection
+     */
+    public static NotificationResponse toResponse(NotificationSummary summary, Long receiverId) {
+        return NotificationResponse.builder()
+                .id(summary.getId())
+                .type(summary.getType())
+                .message(summary.getMessage())
+                .senderId(summary.getSenderId())
+                .receiverId(receiverId)
+                .isRead(summary.getIsRead())
+                .createdAt(summary.getCreatedAt())
+                .referenceId(summary.getReferenceId())
+                .referenceType(summary.getReferenceType())
+                .build();
+    }
+
+    /**
+     * Convert a broadcast notification to the response a given receiver sees
+     */
+    public static NotificationResponse toResponse(BroadcastNotification broadcast, Long receiverId, boolean isRead) {
+        return NotificationResponse.builder()
+                .id(broadcast.getId())
+                .type(broadcast.getType())
+                .message(broadcast.getMessage())
+                .senderId(broadcast.getSenderId())
+                .receiverId(receiverId)
+                .isRead(isRead)
+                .createdAt(broadcast.getCreatedAt())
+                .referenceId(broadcast.getReferenceId())
+                .referenceType(broadcast.getReferenceType())
+                .build();
+    }
+
     /**
      * Convert NotificationEvent to Notification entity
      */
@@ -0,0 +1,54 @@
+package semsem.notificationservice.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+import semsem.notificationservice.enums.NotificationType;
+
+import java.time.LocalDateTime;
+
+/**
+ * One row per source event for notification types that fan out on read (e.g. POSTED_NEW_CONTENT).
+ * Receivers are not stored: a user sees the broadcasts whose sender is one of their friends,
+ * merged at read time with their personal {@link Notification}s.
+ * Shares notifications_sequence with {@link Notification}, so ids are unique across both tables.
+ */
+@Entity
+@Table(name = "broadcast_notifications", indexes = {
+        @Index(name = "idx_broadcast_sender_created_at", columnList = "sender_id, created_at")
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BroadcastNotification {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "broadcast_notifications_sequence")
+    @SequenceGenerator(name = "broadcast_notifications_sequence", sequenceName = "notifications_sequence",
+            allocationSize = Notification.ID_ALLOCATION_SIZE)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 50)
+    private NotificationType type;
+
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String message;
+
+    @Column(name = "sender_id", nullable = false)
+    private Long senderId;
+
+    @CreationTimestamp
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "reference_id")
+    private Long referenceId;
+
+    @Column(name = "reference_type", length = 50)
+    private String referenceType;
+}
@@ -12,8 +12,8 @@ import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "notifications", indexes = {
-        @Index(name = "idx_receiver_id", columnList = "receiver_id"),
-        @Index(name = "idx_receiver_read", columnList = "receiver_id, is_read"),
+        @Index(name = "idx_receiver_created_at", columnList = "receiver_id, created_at DESC, id DESC"),
+        @Index(name = "idx_receiver_read_created_at", columnList = "receiver_id, is_read, created_at DESC, id DESC"),
         @Index(name = "idx_created_at", columnList = "created_at")
 })
 @Data
@@ -22,9 +22,12 @@ import java.time.LocalDateTime;
 @AllArgsConstructor
 public class Notification {
 
+    // Must match the INCREMENT BY of notifications_sequence; NotificationBulkWriter reserves ids in blocks of this size
+    public static final int ID_ALLOCATION_SIZE = 500;
+
     @Id
     @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "notifications_sequence")
-    @SequenceGenerator(name = "notifications_sequence", sequenceName = "notifications_sequence", allocationSize = 50)
+    @SequenceGenerator(name = "notifications_sequence", sequenceName = "notifications_sequence", allocationSize = ID_ALLOCATION_SIZE)
     private Long id;
 
     @Enumerated(EnumType.STRING)
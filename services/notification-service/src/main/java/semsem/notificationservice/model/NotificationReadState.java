@@ -0,0 +1,42 @@
+package semsem.notificationservice.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+
+/**
+ * A user's read state for broadcast notifications, one row per user.
+ * Every broadcast created at or before {@code broadcastsReadUpTo} counts as read; broadcasts read one by one
+ * after that point are kept in {@code readBroadcastIds}, which is emptied whenever the watermark moves.
+ * Changed only through the atomic updates of {@link semsem.notificationservice.repository.NotificationReadStateRepository}.
+ */
+@Entity
+@Table(name = "notification_read_state")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class NotificationReadState {
+
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Column(name = "broadcasts_read_up_to", nullable = false)
+    private LocalDateTime broadcastsReadUpTo;
+
+    @Column(name = "read_broadcast_ids", nullable = false, columnDefinition = "BIGINT[]")
+    @Builder.Default
+    private Long[] readBroadcastIds = new Long[0];
+
+    public boolean isRead(BroadcastNotification broadcast) {
+        return !broadcast.getCreatedAt().isAfter(broadcastsReadUpTo)
+                || Arrays.asList(readBroadcastIds).contains(broadcast.getId());
+    }
+
+}
@@ -0,0 +1,89 @@
+package semsem.notificationservice.repository;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import semsem.notificationservice.enums.NotificationType;
+import semsem.notificationservice.model.BroadcastNotification;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface BroadcastNotificationRepository extends JpaRepository<BroadcastNotification, Long> {
+
+    /**
+     * Find broadcasts sent by any of the given users (a receiver's friends), newest first
+     */
+    Page<BroadcastNotification> findBySenderIdInOrderByCreatedAtDesc(Collection<Long> senderIds, Pageable pageable);
+
+    /**
+     * Find broadcasts sent by any of the given users after a point in time, newest first
+     */
+    Page<BroadcastNotification> findBySenderIdInAndCreatedAtAfterOrderByCreatedAtDesc(
+            Collection<Long> senderIds, LocalDateTime after, Pageable pageable);
+
+    /**
+     * Newest broadcasts of one type sent by any of the given users, without a count query
+     */
+    List<BroadcastNotification> findBySenderIdInAndTypeOrderByCreatedAtDescIdDesc(Collection<Long> senderIds,
+                                                                                 NotificationType type,
+                                                                                 Limit limit);
+
+    /**
+     * Newest broadcasts sent by any of the given users after a point in time, without a count query.
+     * An IN list cannot be walked in (sender_id, created_at) order, so every sender contributes at most
+     * :limit rows through a LATERAL range scan and only those are merged: the cost follows the slice size
+     * and the number of senders, not the senders' whole history.
+     */
+    @Query(value = "SELECT b.* FROM (SELECT DISTINCT unnest(ARRAY[:senderIds]) AS sender_id) s "
+            + "CROSS JOIN LATERAL (SELECT bn.* FROM broadcast_notifications bn "
+            + "WHERE bn.sender_id = s.sender_id AND bn.created_at > :after "
+            + "ORDER BY bn.created_at DESC, bn.id DESC LIMIT :limit) b "
+            + "ORDER BY b.created_at DESC, b.id DESC LIMIT :limit", nativeQuery = true)
+    List<BroadcastNotification> findVisible(@Param("senderIds") Collection<Long> senderIds,
+                                            @Param("after") LocalDateTime after,
+                                            @Param("limit") int limit);
+
+    /**
+     * Broadcasts sent by any of the given users between a point in time and a cursor position, newest first,
+     * merged from one LATERAL range scan per sender like {@link #findVisible}
+     */
+    @Query(value = "SELECT b.* FROM (SELECT DISTINCT unnest(ARRAY[:senderIds]) AS sender_id) s "
+            + "CROSS JOIN LATERAL (SELECT bn.* FROM broadcast_notifications bn "
+            + "WHERE bn.sender_id = s.sender_id AND bn.created_at > :after AND bn.created_at <= :createdAt "
+            + "AND (bn.created_at, bn.id) < (:createdAt, :id) "
+            + "ORDER BY bn.created_at DESC, bn.id DESC LIMIT :limit) b "
+            + "ORDER BY b.created_at DESC, b.id DESC LIMIT :limit", nativeQuery = true)
+    List<BroadcastNotification> findVisibleBefore(@Param("senderIds") Collection<Long> senderIds,
+                                                  @Param("after") LocalDateTime after,
+                                                  @Param("createdAt") LocalDateTime createdAt,
+                                                  @Param("id") Long id,
+                                                  @Param("limit") int limit);
+
+    /**
+     * Count broadcasts sent by any of the given users
+     */
+    long countBySenderIdIn(Collection<Long> senderIds);
+
+    /**
+     * Count broadcasts of one type sent by any of the given users
+     */
+    long countBySenderIdInAndType(Collection<Long> senderIds, NotificationType type);
+
+    /**
+     * Count broadcasts sent by any of the given users after a point in time
+     */
+    long countBySenderIdInAndCreatedAtAfter(Collection<Long> senderIds, LocalDateTime after);
+
+    /**
+     * Count which of the given broadcast ids were sent by any of the given users
+     */
+    @Query("SELECT COUNT(b) FROM BroadcastNotification b WHERE b.id IN :ids AND b.senderId IN :senderIds")
+    long countByIdInAndSenderIdIn(@Param("ids") Collection<Long> ids, @Param("senderIds") Collection<Long> senderIds);
+}
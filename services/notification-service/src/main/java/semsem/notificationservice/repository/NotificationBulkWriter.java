@@ -0,0 +1,78 @@
+package semsem.notificationservice.repository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import semsem.notificationservice.model.Notification;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Inserts many notifications with one JDBC batch instead of one {@code save} per row.
+ * Ids are taken from {@code notifications_sequence} the same way Hibernate's pooled optimizer does:
+ * every {@code nextval} reserves the block {@code (value - allocationSize, value]}, and all blocks
+ * needed for the batch are fetched in a single query.
+ */
+@Repository
+@RequiredArgsConstructor
+@Slf4j
+public class NotificationBulkWriter {
+
+    private static final String NEXT_ID_BLOCKS_SQL =
+            "SELECT nextval('notifications_sequence') FROM generate_series(1, ?)";
+
+    private static final String INSERT_SQL =
+            "INSERT INTO notifications (id, type, message, sender_id, receiver_id, is_read, created_at, reference_id, reference_type) " +
+            "VALUES (?, ?, ?, ?, ?, false, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Assigns ids and creation time to the given (new) notifications and inserts them as one batch.
+     * Must run inside the caller's transaction.
+     *
+     * @return number of rows inserted
+     */
+    public int insertAll(List<Notification> notifications) {
+        if (notifications.isEmpty()) {
+            return 0;
+        }
+
+        assignIds(notifications);
+        LocalDateTime createdAt = LocalDateTime.now();
+        Timestamp createdAtTimestamp = Timestamp.valueOf(createdAt);
+
+        int[][] counts = jdbcTemplate.batchUpdate(INSERT_SQL, notifications, notifications.size(), (ps, notification) -> {
+            ps.setLong(1, notification.getId());
+            ps.setString(2, notification.getType().name());
+            ps.setString(3, notification.getMessage());
+            ps.setObject(4, notification.getSenderId(), Types.BIGINT);
+            ps.setLong(5, notification.getReceiverId());
+            ps.setTimestamp(6, createdAtTimestamp);
+            ps.setObject(7, notification.getReferenceId(), Types.BIGINT);
+            ps.setString(8, notification.getReferenceType());
+        });
+        notifications.forEach(notification -> {
+            notification.setIsRead(false);
+            notification.setCreatedAt(createdAt);
+        });
+
+        log.debug("Bulk inserted {} notifications", notifications.size());
+        return counts.length > 0 ? counts[0].length : 0;
+    }
+
+    private void assignIds(List<Notification> notifications) {
+        int blockSize = Notification.ID_ALLOCATION_SIZE;
+        int blocks = (notifications.size() + blockSize - 1) / blockSize;
+        List<Long> blockEnds = jdbcTemplate.queryForList(NEXT_ID_BLOCKS_SQL, Long.class, blocks);
+
+        for (int i = 0; i < notifications.size(); i++) {
+            long blockEnd = blockEnds.get(i / blockSize);
+            notifications.get(i).setId(blockEnd - blockSize + 1 + (i % blockSize));
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package semsem.notificationservice.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import semsem.notificationservice.model.NotificationReadState;
+
+import java.time.LocalDateTime;
+
+/**
+ * Read state changes are single statements rather than load-modify-save, so concurrent marks of the same
+ * user never overwrite each other and the update count tells whether anything changed.
+ */
+@Repository
+public interface NotificationReadStateRepository extends JpaRepository<NotificationReadState, Long> {
+
+    /**
+     * Create the user's read state with the given watermark unless it already exists
+     */
+    @Modifying
+    @Query(value = "INSERT INTO notification_read_state (user_id, broadcasts_read_up_to, read_broadcast_ids) "
+            + "VALUES (:userId, :readUpTo, '{}') ON CONFLICT (user_id) DO NOTHING", nativeQuery = true)
+    int insertIfAbsent(@Param("userId") Long userId, @Param("readUpTo") LocalDateTime readUpTo);
+
+    /**
+     * Add a broadcast to the individually read ones unless the watermark covers it or it is already there
+     *
+     * @return 1 if the broadcast was unread, 0 otherwise
+     */
+    @Modifying
+    @Query(value = "UPDATE notification_read_state SET read_broadcast_ids = array_append(read_broadcast_ids, :broadcastId) "
+            + "WHERE user_id = :userId AND broadcasts_read_up_to < :createdAt "
+            + "AND NOT (:broadcastId = ANY(read_broadcast_ids))", nativeQuery = true)
+    int markRead(@Param("userId") Long userId,
+                 @Param("broadcastId") Long broadcastId,
+                 @Param("createdAt") LocalDateTime createdAt);
+
+    /**
+     * Move the watermark forward and forget the individually read broadcasts it now covers
+     */
+    @Modifying
+    @Query(value = "UPDATE notification_read_state SET broadcasts_read_up_to = :upTo, read_broadcast_ids = '{}' "
+            + "WHERE user_id = :userId AND broadcasts_read_up_to < :upTo", nativeQuery = true)
+    int markAllReadUpTo(@Param("userId") Long userId, @Param("upTo") LocalDateTime upTo);
+}
@@ -1,5 +1,6 @@
 package semsem.notificationservice.repository;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -7,20 +8,57 @@ import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import semsem.notificationservice.dto.NotificationSummary;
 import semsem.notificationservice.enums.NotificationType;
 import semsem.notificationservice.model.Notification;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface NotificationRepository extends JpaRepository<Notification, Long> {
 
+    String SELECT_SUMMARY = "SELECT n.id AS id, n.type AS type, n.message AS message, n.senderId AS senderId, "
+            + "n.isRead AS isRead, n.createdAt AS createdAt, n.referenceId AS referenceId, n.referenceType AS referenceType "
+            + "FROM Notification n ";
+    String NEWEST_FIRST = " ORDER BY n.createdAt DESC, n.id DESC";
+
     /**
      * Find all notifications for a specific receiver with pagination
      */
     Page<Notification> findByReceiverIdOrderByCreatedAtDesc(Long receiverId, Pageable pageable);
 
+    /**
+     * Newest notifications of a receiver, without a count query (first slice of the keyset listing)
+     */
+    @Query(SELECT_SUMMARY + "WHERE n.receiverId = :receiverId" + NEWEST_FIRST)
+    List<NotificationSummary> findSummaries(@Param("receiverId") Long receiverId, Limit limit);
+
+    /**
+     * Notifications of a receiver older than the cursor position, seeking on (receiver_id, created_at, id)
+     */
+    @Query(SELECT_SUMMARY + "WHERE n.receiverId = :receiverId AND (n.createdAt, n.id) < (:createdAt, :id)" + NEWEST_FIRST)
+    List<NotificationSummary> findSummariesBefore(@Param("receiverId") Long receiverId,
+                                                  @Param("createdAt") LocalDateTime createdAt,
+                                                  @Param("id") Long id,
+                                                  Limit limit);
+
+    /**
+     * Newest unread notifications of a receiver, without a count query
+     */
+    @Query(SELECT_SUMMARY + "WHERE n.receiverId = :receiverId AND n.isRead = false" + NEWEST_FIRST)
+    List<NotificationSummary> findUnreadSummaries(@Param("receiverId") Long receiverId, Limit limit);
+
+    /**
+     * Unread notifications of a receiver older than the cursor position, seeking on (receiver_id, is_read, created_at, id)
+     */
+    @Query(SELECT_SUMMARY + "WHERE n.receiverId = :receiverId AND n.isRead = false AND (n.createdAt, n.id) < (:createdAt, :id)" + NEWEST_FIRST)
+    List<NotificationSummary> findUnreadSummariesBefore(@Param("receiverId") Long receiverId,
+                                                        @Param("createdAt") LocalDateTime createdAt,
+                                                        @Param("id") Long id,
+                                                        Limit limit);
+
     /**
      * Find unread notifications for a specific receiver
      */
@@ -41,6 +79,12 @@ public interface NotificationRepository extends JpaRepository<Notification, Long
      */
     Long countByReceiverIdAndIsReadFalse(Long receiverId);
 
+    /**
+     * Count unread notifications for many receivers at once; receivers without unread rows are absent
+     */
+    @Query("SELECT n.receiverId, COUNT(n) FROM Notification n WHERE n.receiverId IN :receiverIds AND n.isRead = false GROUP BY n.receiverId")
+    List<Object[]> countUnreadByReceiverIds(@Param("receiverIds") Collection<Long> receiverIds);
+
     /**
      * Find notifications created after a specific date
      */
@@ -57,7 +101,7 @@ public interface NotificationRepository extends JpaRepository<Notification, Long
      * Mark specific notification as read
      */
     @Modifying
-    @Query("UPDATE Notification n SET n.isRead = true, n.readAt = :readAt WHERE n.id = :notificationId AND n.receiverId = :receiverId")
+    @Query("UPDATE Notification n SET n.isRead = true, n.readAt = :readAt WHERE n.id = :notificationId AND n.receiverId = :receiverId AND n.isRead = false")
     int markAsRead(@Param("notificationId") Long notificationId, @Param("receiverId") Long receiverId, @Param("readAt") LocalDateTime readAt);
 
     /**
@@ -0,0 +1,86 @@
+package semsem.notificationservice.repository;
+
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Which instances hold a push stream for a user.
+ * {@code notifications:push:instances:{userId}} is a ZSET of instance ids scored by the time their registration
+ * expires; instances refresh their users on every heartbeat, so a crashed instance drops out on its own.
+ */
+@Repository
+public class PushConnectionRepository {
+
+    private static final String INSTANCES_KEY_PREFIX = "notifications:push:instances:";
+
+    private final StringRedisTemplate stringRedisTemplate;
+
+    public PushConnectionRepository(StringRedisTemplate stringRedisTemplate) {
+        this.stringRedisTemplate = stringRedisTemplate;
+    }
+
+    /**
+     * Register (or extend) this instance for the given users in one pipelined round trip
+     */
+    public void register(Collection<Long> userIds, String instanceId, Duration ttl) {
+        if (userIds.isEmpty()) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        stringRedisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <K, V> Object execute(RedisOperations<K, V> operations) {
+                RedisOperations<String, String> stringOperations = (RedisOperations<String, String>) operations;
+                for (Long userId : userIds) {
+                    String key = INSTANCES_KEY_PREFIX + userId;
+                    stringOperations.opsForZSet().removeRangeByScore(key, Double.NEGATIVE_INFINITY, now);
+                    stringOperations.opsForZSet().add(key, instanceId, now + ttl.toMillis());
+                    stringOperations.expire(key, ttl);
+                }
+                return null;
+            }
+        });
+    }
+
+    public void unregister(Long userId, String instanceId) {
+        stringRedisTemplate.opsForZSet().remove(INSTANCES_KEY_PREFIX + userId, instanceId);
+    }
+
+    /**
+     * Live instances per user in one pipelined round trip; users without a push stream are absent
+     */
+    public Map<Long, Set<String>> findInstances(List<Long> userIds) {
+        long now = System.currentTimeMillis();
+        List<Object> results = stringRedisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <K, V> Object execute(RedisOperations<K, V> operations) {
+                RedisOperations<String, String> stringOperations = (RedisOperations<String, String>) operations;
+                for (Long userId : userIds) {
+                    stringOperations.opsForZSet().rangeByScore(INSTANCES_KEY_PREFIX + userId, now, Double.POSITIVE_INFINITY);
+                }
+                return null;
+            }
+        });
+
+        Map<Long, Set<String>> instancesByUserId = new HashMap<>();
+        for (int i = 0; i < userIds.size(); i++) {
+            @SuppressWarnings("unchecked")
+            Set<String> instances = (Set<String>) results.get(i);
+            if (instances != null && !instances.isEmpty()) {
+                instancesByUserId.put(userIds.get(i), instances);
+            }
+        }
+        return instancesByUserId;
+    }
+}
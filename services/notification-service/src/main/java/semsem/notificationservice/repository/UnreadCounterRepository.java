@@ -0,0 +1,186 @@
+package semsem.notificationservice.repository;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Repository;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Per-user unread notification counters in Redis.
+ * {@code notifications:unread:{userId}} counts personal notifications and is updated on every write;
+ * {@code notifications:unread-broadcast:{userId}} caches the unread count of friends' broadcasts for a
+ * short time, since those are not counted on write. Missing counters are recounted on the next read.
+ */
+@Repository
+@Slf4j
+public class UnreadCounterRepository {
+
+    private static final String UNREAD_KEY_PREFIX = "notifications:unread:";
+    private static final String UNREAD_BROADCAST_KEY_PREFIX = "notifications:unread-broadcast:";
+    private static final String RECONCILE_LOCK_KEY = "notifications:unread-reconcile-lock";
+    private static final int MAX_KEYS_PER_SCRIPT = 500;
+
+    private static final RedisScript<Long> ADD_IF_PRESENT = RedisScript.of(
+            new ClassPathResource("redis/unread-counter-add-if-present.lua"), Long.class);
+    private static final RedisScript<Long> OVERWRITE_IF_UNCHANGED = RedisScript.of(
+            new ClassPathResource("redis/unread-counter-overwrite-if-unchanged.lua"), Long.class);
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final Duration ttl;
+    private final Duration broadcastTtl;
+
+    public UnreadCounterRepository(StringRedisTemplate stringRedisTemplate,
+                                   @Value("${notifications.unread-counter.ttl:1h}") Duration ttl,
+                                   @Value("${notifications.unread-counter.broadcast-ttl:60s}") Duration broadcastTtl) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.ttl = ttl;
+        this.broadcastTtl = broadcastTtl;
+    }
+
+    /**
+     * Cached personal and broadcast unread counts of a user in one MGET; either may be null
+     */
+    public Long[] get(Long userId) {
+        List<String> values = stringRedisTemplate.opsForValue()
+                .multiGet(List.of(UNREAD_KEY_PREFIX + userId, UNREAD_BROADCAST_KEY_PREFIX + userId));
+        Long[] counts = new Long[2];
+        if (values != null) {
+            for (int i = 0; i < counts.length && i < values.size(); i++) {
+                counts[i] = values.get(i) != null ? Long.valueOf(values.get(i)) : null;
+            }
+        }
+        return counts;
+    }
+
+    public void set(Long userId, long unread) {
+        stringRedisTemplate.opsForValue().set(UNREAD_KEY_PREFIX + userId, String.valueOf(unread), ttl);
+    }
+
+    public void setBroadcast(Long userId, long unread) {
+        stringRedisTemplate.opsForValue().set(UNREAD_BROADCAST_KEY_PREFIX + userId, String.valueOf(unread), broadcastTtl);
+    }
+
+    public void evictBroadcast(Long userId) {
+        stringRedisTemplate.delete(UNREAD_BROADCAST_KEY_PREFIX + userId);
+    }
+
+    /**
+     * Drop the cached broadcast counters of many users with one DEL
+     */
+    public void evictBroadcast(Collection<Long> userIds) {
+        if (userIds.isEmpty()) {
+            return;
+        }
+        List<String> keys = new ArrayList<>(userIds.size());
+        userIds.forEach(userId -> keys.add(UNREAD_BROADCAST_KEY_PREFIX + userId));
+        stringRedisTemplate.delete(keys);
+    }
+
+    /**
+     * Add {@code delta} to the cached personal counters of the given users, one script call per chunk of users
+     */
+    public void addIfPresent(Collection<Long> userIds, long delta) {
+        List<String> keys = new ArrayList<>(Math.min(userIds.size(), MAX_KEYS_PER_SCRIPT));
+        for (Long userId : userIds) {
+            keys.add(UNREAD_KEY_PREFIX + userId);
+            if (keys.size() == MAX_KEYS_PER_SCRIPT) {
+                stringRedisTemplate.execute(ADD_IF_PRESENT, keys, String.valueOf(delta));
+                keys = new ArrayList<>(MAX_KEYS_PER_SCRIPT);
+            }
+        }
+        if (!keys.isEmpty()) {
+            stringRedisTemplate.execute(ADD_IF_PRESENT, keys, String.valueOf(delta));
+        }
+    }
+
+    /**
+     * Walk the user ids of all cached personal counters, {@code batchSize} at a time
+     */
+    public void forEachCachedUserBatch(int batchSize, Consumer<List<Long>> batchConsumer) {
+        ScanOptions options = ScanOptions.scanOptions().match(UNREAD_KEY_PREFIX + "*").count(batchSize).build();
+        List<Long> batch = new ArrayList<>(batchSize);
+        try (Cursor<String> cursor = stringRedisTemplate.scan(options)) {
+            while (cursor.hasNext()) {
+                batch.add(Long.valueOf(cursor.next().substring(UNREAD_KEY_PREFIX.length())));
+                if (batch.size() == batchSize) {
+                    batchConsumer.accept(batch);
+                    batch = new ArrayList<>(batchSize);
+                }
+            }
+        }
+        if (!batch.isEmpty()) {
+            batchConsumer.accept(batch);
+        }
+    }
+
+    /**
+     * Raw cached personal counters of the given users in one MGET; users without a counter are absent
+     */
+    public Map<Long, String> sample(List<Long> userIds) {
+        List<String> keys = new ArrayList<>(userIds.size());
+        userIds.forEach(userId -> keys.add(UNREAD_KEY_PREFIX + userId));
+        List<String> values = stringRedisTemplate.opsForValue().multiGet(keys);
+
+        Map<Long, String> sampled = new HashMap<>(userIds.size());
+        for (int i = 0; values != null && i < values.size(); i++) {
+            if (values.get(i) != null) {
+                sampled.put(userIds.get(i), values.get(i));
+            }
+        }
+        return sampled;
+    }
+
+    /**
+     * Overwrite cached personal counters with recounted values, keeping their TTL, but only those still holding
+     * the value sampled before the recount: a write that adjusted a counter in between is not lost
+     *
+     * @return number of counters overwritten
+     */
+    public long overwriteIfUnchanged(Map<Long, String> sampled, Map<Long, Long> unreadByUserId) {
+        long overwritten = 0;
+        List<String> keys = new ArrayList<>(MAX_KEYS_PER_SCRIPT);
+        List<String> args = new ArrayList<>(2 * MAX_KEYS_PER_SCRIPT);
+        for (Map.Entry<Long, String> entry : sampled.entrySet()) {
+            Long unread = unreadByUserId.get(entry.getKey());
+            if (unread == null) {
+                continue;
+            }
+            keys.add(UNREAD_KEY_PREFIX + entry.getKey());
+            args.add(entry.getValue());
+            args.add(String.valueOf(unread));
+            if (keys.size() == MAX_KEYS_PER_SCRIPT) {
+                overwritten += overwriteChunk(keys, args);
+                keys = new ArrayList<>(MAX_KEYS_PER_SCRIPT);
+                args = new ArrayList<>(2 * MAX_KEYS_PER_SCRIPT);
+            }
+        }
+        if (!keys.isEmpty()) {
+            overwritten += overwriteChunk(keys, args);
+        }
+        return overwritten;
+    }
+
+    private long overwriteChunk(List<String> keys, List<String> args) {
+        Long overwritten = stringRedisTemplate.execute(OVERWRITE_IF_UNCHANGED, keys, args.toArray());
+        return overwritten != null ? overwritten : 0;
+    }
+
+    /**
+     * Only one instance reconciles per interval
+     */
+    public boolean tryAcquireReconcileLock(Duration lockTtl) {
+        return Boolean.TRUE.equals(stringRedisTemplate.opsForValue().setIfAbsent(RECONCILE_LOCK_KEY, "1", lockTtl));
+    }
+}
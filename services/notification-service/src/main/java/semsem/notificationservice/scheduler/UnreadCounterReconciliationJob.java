@@ -0,0 +1,67 @@
+package semsem.notificationservice.scheduler;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import semsem.notificationservice.repository.NotificationRepository;
+import semsem.notificationservice.repository.UnreadCounterRepository;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Corrects drift in the cached unread counters (e.g. a Redis update lost after a commit)
+ * by recounting every cached user against the database, one grouped COUNT per batch of users.
+ * Counters are sampled before the recount and compare-and-set afterwards, so an increment or decrement
+ * applied while the batch was being counted is never overwritten with the older count.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class UnreadCounterReconciliationJob {
+
+    private final UnreadCounterRepository unreadCounterRepository;
+    private final NotificationRepository notificationRepository;
+
+    @Value("${notifications.unread-counter.reconcile-interval-ms:600000}")
+    private long reconcileIntervalMs;
+
+    @Value("${notifications.unread-counter.reconcile-batch-size:500}")
+    private int batchSize;
+
+    @Scheduled(fixedDelayString = "${notifications.unread-counter.reconcile-interval-ms:600000}")
+    public void reconcile() {
+        try {
+            if (!unreadCounterRepository.tryAcquireReconcileLock(Duration.ofMillis(reconcileIntervalMs))) {
+                return;
+            }
+            long[] reconciled = {0, 0};
+            unreadCounterRepository.forEachCachedUserBatch(batchSize, userIds -> {
+                Map<Long, String> sampled = unreadCounterRepository.sample(userIds);
+                if (sampled.isEmpty()) {
+                    return;
+                }
+                Map<Long, Long> unread = countUnread(new ArrayList<>(sampled.keySet()));
+                reconciled[0] += unreadCounterRepository.overwriteIfUnchanged(sampled, unread);
+                reconciled[1] += sampled.size();
+            });
+            log.info("Reconciled unread counters of {} out of {} users", reconciled[0], reconciled[1]);
+        } catch (Exception e) {
+            log.error("Error reconciling unread counters: {}", e.getMessage(), e);
+        }
+    }
+
+    private Map<Long, Long> countUnread(List<Long> userIds) {
+        Map<Long, Long> unreadByUserId = new HashMap<>(userIds.size());
+        userIds.forEach(userId -> unreadByUserId.put(userId, 0L));
+        for (Object[] row : notificationRepository.countUnreadByReceiverIds(userIds)) {
+            unreadByUserId.put((Long) row[0], (Long) row[1]);
+        }
+        return unreadByUserId;
+    }
+}
@@ -0,0 +1,66 @@
+package semsem.notificationservice.service;
+
+import semsem.notificationservice.dto.NotificationCursor;
+import semsem.notificationservice.dto.NotificationEvent;
+import semsem.notificationservice.dto.NotificationResponse;
+import semsem.notificationservice.enums.NotificationType;
+import semsem.notificationservice.model.BroadcastNotification;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+public interface BroadcastNotificationService {
+
+    /**
+     * Whether notifications of this type are stored once per event and fanned out on read
+     */
+    boolean isFanOutOnRead(NotificationType type);
+
+    /**
+     * Store one broadcast for all of the sender's friends
+     */
+    BroadcastNotification createBroadcast(NotificationEvent event, Long referenceId, String referenceType);
+
+    /**
+     * Newest broadcasts visible to a user (sent by one of their friends), at most {@code limit}
+     */
+    List<NotificationResponse> getRecentBroadcasts(Long userId, List<Long> friendIds, int limit, boolean unreadOnly);
+
+    /**
+     * Newest broadcasts of one type visible to a user, at most {@code limit}
+     */
+    List<NotificationResponse> getRecentBroadcastsOfType(Long userId, List<Long> friendIds, NotificationType type, int limit);
+
+    /**
+     * Broadcasts visible to a user that come after the cursor (all newest ones if it is null), at most {@code limit}
+     */
+    List<NotificationResponse> getBroadcastsAfter(Long userId, List<Long> friendIds, NotificationCursor cursor,
+                                                  int limit, boolean unreadOnly);
+
+    /**
+     * Count broadcasts visible to a user
+     */
+    long countBroadcasts(List<Long> friendIds);
+
+    /**
+     * Count broadcasts of one type visible to a user
+     */
+    long countBroadcastsOfType(List<Long> friendIds, NotificationType type);
+
+    /**
+     * Count unread broadcasts visible to a user
+     */
+    long countUnreadBroadcasts(Long userId, List<Long> friendIds);
+
+    /**
+     * Mark a single broadcast as read for a user; the friend list is only fetched once the broadcast is found
+     *
+     * @return true only if the broadcast was visible to the user and unread until now
+     */
+    boolean markAsRead(Long broadcastId, Long userId, Supplier<List<Long>> friendIds);
+
+    /**
+     * Mark every broadcast created so far as read for a user
+     */
+    void markAllAsRead(Long userId);
+}
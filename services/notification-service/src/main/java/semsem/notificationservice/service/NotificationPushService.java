@@ -0,0 +1,40 @@
+package semsem.notificationservice.service;
+
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import semsem.notificationservice.dto.NotificationPushMessage;
+import semsem.notificationservice.dto.NotificationResponse;
+
+import java.util.List;
+
+public interface NotificationPushService {
+
+    /**
+     * Open a server-sent-events stream for a user on this instance
+     */
+    SseEmitter connect(Long userId);
+
+    /**
+     * Push a new unread notification to its receiver
+     */
+    void pushNotification(NotificationResponse notification);
+
+    /**
+     * Push a change of the user's unread count
+     */
+    void pushUnreadDelta(Long userId, long delta);
+
+    /**
+     * Push that all of the user's notifications are read
+     */
+    void pushUnreadReset(Long userId);
+
+    /**
+     * Send messages routed to this instance to the local streams of their users
+     */
+    void deliverLocally(List<NotificationPushMessage> messages);
+
+    /**
+     * Redis channel that messages for the given instance are published to
+     */
+    String pushChannelFor(String instanceId);
+}
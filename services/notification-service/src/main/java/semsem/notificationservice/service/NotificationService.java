@@ -5,10 +5,12 @@ import org.springframework.data.domain.Pageable;
 import semsem.notificationservice.dto.NotificationEvent;
 import semsem.notificationservice.dto.NotificationPageResponse;
 import semsem.notificationservice.dto.NotificationResponse;
+import semsem.notificationservice.dto.NotificationSliceResponse;
 import semsem.notificationservice.enums.NotificationType;
 import semsem.notificationservice.model.Notification;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
 public interface NotificationService {
 
@@ -22,11 +24,23 @@ public interface NotificationService {
      */
     Notification createNotification(NotificationEvent event, Long referenceId, String referenceType);
 
+    /**
+     * Create the same notification for many receivers with batched inserts, in one transaction
+     *
+     * @return number of notifications created
+     */
+    int createNotifications(NotificationEvent event, List<Long> receiverIds, Long referenceId, String referenceType);
+
     /**
      * Get all notifications for a user with pagination
      */
     NotificationPageResponse getUserNotifications(Long userId, Pageable pageable);
 
+    /**
+     * Get a slice of a user's notifications after a cursor (from the newest if it is null), without counting rows
+     */
+    NotificationSliceResponse getNotificationSlice(Long userId, String cursor, int size, boolean unreadOnly);
+
     /**
      * Get unread notifications for a user
      */
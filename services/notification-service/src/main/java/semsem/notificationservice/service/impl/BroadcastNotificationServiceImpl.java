@@ -0,0 +1,190 @@
+package semsem.notificationservice.service.impl;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import semsem.notificationservice.dto.NotificationCursor;
+import semsem.notificationservice.dto.NotificationEvent;
+import semsem.notificationservice.dto.NotificationResponse;
+import semsem.notificationservice.enums.NotificationType;
+import semsem.notificationservice.mapper.NotificationMapper;
+import semsem.notificationservice.model.BroadcastNotification;
+import semsem.notificationservice.model.NotificationReadState;
+import semsem.notificationservice.repository.BroadcastNotificationRepository;
+import semsem.notificationservice.repository.NotificationReadStateRepository;
+import semsem.notificationservice.service.BroadcastNotificationService;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class BroadcastNotificationServiceImpl implements BroadcastNotificationService {
+
+    // lower creation time bound when every visible broadcast is listed, not just the unread ones
+    private static final LocalDateTime NO_LOWER_BOUND = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    private final BroadcastNotificationRepository broadcastNotificationRepository;
+    private final NotificationReadStateRepository readStateRepository;
+
+    @Value("${notifications.fanout.on-read-types:POSTED_NEW_CONTENT}")
+    private Set<NotificationType> fanOutOnReadTypes;
+
+    // broadcasts older than this count as read for users that never marked anything as read
+    @Value("${notifications.broadcast.unread-horizon:30d}")
+    private Duration unreadHorizon;
+
+    @Override
+    public boolean isFanOutOnRead(NotificationType type) {
+        return fanOutOnReadTypes.contains(type);
+    }
+
+    @Override
+    @Transactional
+    public BroadcastNotification createBroadcast(NotificationEvent event, Long referenceId, String referenceType) {
+        log.info("Creating broadcast notification from sender: {}, type: {}, reference: {}:{}",
+                event.getSenderId(), event.getType(), referenceType, referenceId);
+        return broadcastNotificationRepository.save(BroadcastNotification.builder()
+                .type(event.getType())
+                .message(event.getMessage())
+                .senderId(event.getSenderId())
+                .referenceId(referenceId)
+                .referenceType(referenceType)
+                .build());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<NotificationResponse> getRecentBroadcasts(Long userId, List<Long> friendIds, int limit, boolean unreadOnly) {
+        if (friendIds.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+
+        NotificationReadState readState = readStateOf(userId);
+        List<BroadcastNotification> broadcasts;
+        if (unreadOnly) {
+            // individually read ones are filtered below, so fetch enough to still fill the limit
+            int fetch = limit + readState.getReadBroadcastIds().length;
+            broadcasts = broadcastNotificationRepository.findBySenderIdInAndCreatedAtAfterOrderByCreatedAtDesc(
+                    friendIds, readState.getBroadcastsReadUpTo(), PageRequest.of(0, fetch)).getContent();
+        } else {
+            broadcasts = broadcastNotificationRepository.findBySenderIdInOrderByCreatedAtDesc(
+                    friendIds, PageRequest.of(0, limit)).getContent();
+        }
+
+        return broadcasts.stream()
+                .map(broadcast -> NotificationMapper.toResponse(broadcast, userId, readState.isRead(broadcast)))
+                .filter(response -> !unreadOnly || !response.getIsRead())
+                .limit(limit)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<NotificationResponse> getRecentBroadcastsOfType(Long userId, List<Long> friendIds, NotificationType type, int limit) {
+        if (friendIds.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+
+        NotificationReadState readState = readStateOf(userId);
+        return broadcastNotificationRepository.findBySenderIdInAndTypeOrderByCreatedAtDescIdDesc(friendIds, type, Limit.of(limit))
+                .stream()
+                .map(broadcast -> NotificationMapper.toResponse(broadcast, userId, readState.isRead(broadcast)))
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<NotificationResponse> getBroadcastsAfter(Long userId, List<Long> friendIds, NotificationCursor cursor,
+                                                         int limit, boolean unreadOnly) {
+        if (friendIds.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+
+        NotificationReadState readState = readStateOf(userId);
+        LocalDateTime after = unreadOnly ? readState.getBroadcastsReadUpTo() : NO_LOWER_BOUND;
+        // individually read ones are filtered below, so fetch enough to still fill the limit
+        int fetch = unreadOnly ? limit + readState.getReadBroadcastIds().length : limit;
+        List<BroadcastNotification> broadcasts = cursor == null
+                ? broadcastNotificationRepository.findVisible(friendIds, after, fetch)
+                : broadcastNotificationRepository.findVisibleBefore(friendIds, after, cursor.getCreatedAt(), cursor.getId(), fetch);
+
+        return broadcasts.stream()
+                .map(broadcast -> NotificationMapper.toResponse(broadcast, userId, readState.isRead(broadcast)))
+                .filter(response -> !unreadOnly || !response.getIsRead())
+                .limit(limit)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long countBroadcasts(List<Long> friendIds) {
+        return friendIds.isEmpty() ? 0 : broadcastNotificationRepository.countBySenderIdIn(friendIds);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long countBroadcastsOfType(List<Long> friendIds, NotificationType type) {
+        return friendIds.isEmpty() ? 0 : broadcastNotificationRepository.countBySenderIdInAndType(friendIds, type);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long countUnreadBroadcasts(Long userId, List<Long> friendIds) {
+        if (friendIds.isEmpty()) {
+            return 0;
+        }
+        NotificationReadState readState = readStateOf(userId);
+        long afterWatermark = broadcastNotificationRepository.countBySenderIdInAndCreatedAtAfter(
+                friendIds, readState.getBroadcastsReadUpTo());
+        if (readState.getReadBroadcastIds().length == 0) {
+            return afterWatermark;
+        }
+        return afterWatermark - broadcastNotificationRepository.countByIdInAndSenderIdIn(
+                Arrays.asList(readState.getReadBroadcastIds()), friendIds);
+    }
+
+    @Override
+    @Transactional
+    public boolean markAsRead(Long broadcastId, Long userId, Supplier<List<Long>> friendIds) {
+        BroadcastNotification broadcast = broadcastNotificationRepository.findById(broadcastId).orElse(null);
+        if (broadcast == null) {
+            return false;
+        }
+        if (!friendIds.get().contains(broadcast.getSenderId())) {
+            log.warn("User {} attempted to mark broadcast {} of non-friend {} as read", userId, broadcastId, broadcast.getSenderId());
+            return false;
+        }
+        readStateRepository.insertIfAbsent(userId, defaultReadUpTo());
+        return readStateRepository.markRead(userId, broadcastId, broadcast.getCreatedAt()) > 0;
+    }
+
+    @Override
+    @Transactional
+    public void markAllAsRead(Long userId) {
+        readStateRepository.insertIfAbsent(userId, defaultReadUpTo());
+        readStateRepository.markAllReadUpTo(userId, LocalDateTime.now());
+    }
+
+    private NotificationReadState readStateOf(Long userId) {
+        return readStateRepository.findById(userId)
+                .orElseGet(() -> NotificationReadState.builder()
+                        .userId(userId)
+                        .broadcastsReadUpTo(defaultReadUpTo())
+                        .build());
+    }
+
+    private LocalDateTime defaultReadUpTo() {
+        return LocalDateTime.now().minus(unreadHorizon);
+    }
+}
@@ -0,0 +1,203 @@
+package semsem.notificationservice.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import semsem.notificationservice.dto.NotificationPushMessage;
+import semsem.notificationservice.dto.NotificationResponse;
+import semsem.notificationservice.repository.PushConnectionRepository;
+import semsem.notificationservice.service.NotificationPushService;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+
+/**
+ * Server-sent-events push of new notifications and unread-count changes.
+ * Changes are buffered per user and flushed once per push window, so a burst of notifications reaches the
+ * client as one event. On flush, users are looked up in {@link PushConnectionRepository} and their messages
+ * are published, one Redis message per instance, to the instances that hold their streams.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class NotificationPushServiceImpl implements NotificationPushService {
+
+    private static final String PUSH_CHANNEL_PREFIX = "notifications:push:";
+    private static final String PUSH_EVENT_NAME = "notifications";
+
+    private final ConcurrentMap<Long, Set<SseEmitter>> localEmitters = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Long, NotificationPushMessage> pendingMessages = new ConcurrentHashMap<>();
+
+    private final PushConnectionRepository pushConnectionRepository;
+    private final StringRedisTemplate stringRedisTemplate;
+    private final ObjectMapper objectMapper;
+
+    @Value("${notifications.instance-id}")
+    private String instanceId;
+
+    @Value("${notifications.push.emitter-timeout:30m}")
+    private Duration emitterTimeout;
+
+    @Value("${notifications.push.connection-ttl:90s}")
+    private Duration connectionTtl;
+
+    @Value("${notifications.push.batch-size:500}")
+    private int batchSize;
+
+    @Override
+    public SseEmitter connect(Long userId) {
+        SseEmitter emitter = new SseEmitter(emitterTimeout.toMillis());
+        localEmitters.computeIfAbsent(userId, id -> new CopyOnWriteArraySet<>()).add(emitter);
+        emitter.onCompletion(() -> disconnect(userId, emitter));
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(error -> disconnect(userId, emitter));
+
+        pushConnectionRepository.register(List.of(userId), instanceId, connectionTtl);
+        log.info("Push stream opened for user: {}", userId);
+        return emitter;
+    }
+
+    @Override
+    public void pushNotification(NotificationResponse notification) {
+        NotificationPushMessage message = NotificationPushMessage.builder()
+                .userId(notification.getReceiverId())
+                .unreadDelta(1)
+                .build();
+        message.getNotifications().add(notification);
+        enqueue(message);
+    }
+
+    @Override
+    public void pushUnreadDelta(Long userId, long delta) {
+        enqueue(NotificationPushMessage.builder().userId(userId).unreadDelta(delta).build());
+    }
+
+    @Override
+    public void pushUnreadReset(Long userId) {
+        enqueue(NotificationPushMessage.builder().userId(userId).unreadReset(true).build());
+    }
+
+    @Override
+    public void deliverLocally(List<NotificationPushMessage> messages) {
+        for (NotificationPushMessage message : messages) {
+            Set<SseEmitter> emitters = localEmitters.get(message.getUserId());
+            if (emitters == null) {
+                continue;
+            }
+            for (SseEmitter emitter : emitters) {
+                send(message.getUserId(), emitter, SseEmitter.event().name(PUSH_EVENT_NAME).data(message));
+            }
+        }
+    }
+
+    @Override
+    public String pushChannelFor(String instanceId) {
+        return PUSH_CHANNEL_PREFIX + instanceId;
+    }
+
+    /**
+     * Route everything buffered since the last flush to the instances holding the users' streams
+     */
+    @Scheduled(fixedDelayString = "${notifications.push.coalesce-window-ms:200}")
+    public void flushPendingMessages() {
+        if (pendingMessages.isEmpty()) {
+            return;
+        }
+
+        List<NotificationPushMessage> batch = new ArrayList<>(Math.min(batchSize, pendingMessages.size()));
+        for (Long userId : pendingMessages.keySet()) {
+            NotificationPushMessage message = pendingMessages.remove(userId);
+            if (message != null) {
+                batch.add(message);
+            }
+            if (batch.size() == batchSize) {
+                route(batch);
+                batch = new ArrayList<>(batchSize);
+            }
+        }
+        if (!batch.isEmpty()) {
+            route(batch);
+        }
+    }
+
+    /**
+     * Keep idle streams open through proxies, drop the dead ones and extend this instance's registrations
+     */
+    @Scheduled(fixedDelayString = "${notifications.push.heartbeat-interval-ms:30000}")
+    public void heartbeat() {
+        localEmitters.forEach((userId, emitters) -> emitters.forEach(
+                emitter -> send(userId, emitter, SseEmitter.event().comment("heartbeat"))));
+        try {
+            pushConnectionRepository.register(new ArrayList<>(localEmitters.keySet()), instanceId, connectionTtl);
+        } catch (Exception e) {
+            log.error("Error refreshing push registrations: {}", e.getMessage(), e);
+        }
+    }
+
+    private void enqueue(NotificationPushMessage message) {
+        pendingMessages.merge(message.getUserId(), message, NotificationPushMessage::merge);
+    }
+
+    private void route(List<NotificationPushMessage> messages) {
+        try {
+            List<Long> userIds = messages.stream().map(NotificationPushMessage::getUserId).toList();
+            Map<Long, Set<String>> instancesByUserId = pushConnectionRepository.findInstances(userIds);
+
+            Map<String, List<NotificationPushMessage>> messagesByInstance = new HashMap<>();
+            for (NotificationPushMessage message : messages) {
+                for (String instance : instancesByUserId.getOrDefault(message.getUserId(), Set.of())) {
+                    messagesByInstance.computeIfAbsent(instance, id -> new ArrayList<>()).add(message);
+                }
+            }
+
+            for (Map.Entry<String, List<NotificationPushMessage>> entry : messagesByInstance.entrySet()) {
+                if (entry.getKey().equals(instanceId)) {
+                    deliverLocally(entry.getValue());
+                } else {
+                    stringRedisTemplate.convertAndSend(pushChannelFor(entry.getKey()),
+                            objectMapper.writeValueAsString(entry.getValue()));
+                }
+            }
+            log.debug("Routed {} push messages to {} instances", messages.size(), messagesByInstance.size());
+        } catch (Exception e) {
+            log.error("Failed to route {} push messages: {}", messages.size(), e.getMessage(), e);
+        }
+    }
+
+    private void send(Long userId, SseEmitter emitter, SseEmitter.SseEventBuilder event) {
+        try {
+            emitter.send(event);
+        } catch (IOException | IllegalStateException e) {
+            log.debug("Dropping push stream of user {}: {}", userId, e.getMessage());
+            emitter.completeWithError(e);
+            disconnect(userId, emitter);
+        }
+    }
+
+    private void disconnect(Long userId, SseEmitter emitter) {
+        Set<SseEmitter> remaining = localEmitters.computeIfPresent(userId, (id, emitters) -> {
+            emitters.remove(emitter);
+            return emitters.isEmpty() ? null : emitters;
+        });
+        if (remaining == null) {
+            try {
+                pushConnectionRepository.unregister(userId, instanceId);
+            } catch (Exception e) {
+                log.error("Error unregistering push stream of user {}: {}", userId, e.getMessage());
+            }
+        }
+    }
+}
@@ -2,36 +2,72 @@ package semsem.notificationservice.service.impl;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.server.ResponseStatusException;
+import semsem.notificationservice.client.MainServiceClient;
+import semsem.notificationservice.dto.NotificationCursor;
 import semsem.notificationservice.dto.NotificationEvent;
 import semsem.notificationservice.dto.NotificationPageResponse;
 import semsem.notificationservice.dto.NotificationResponse;
+import semsem.notificationservice.dto.NotificationSliceResponse;
+import semsem.notificationservice.dto.NotificationSummary;
 import semsem.notificationservice.enums.NotificationType;
 import semsem.notificationservice.mapper.NotificationMapper;
 import semsem.notificationservice.model.Notification;
+import semsem.notificationservice.repository.NotificationBulkWriter;
 import semsem.notificationservice.repository.NotificationRepository;
+import semsem.notificationservice.repository.UnreadCounterRepository;
+import semsem.notificationservice.service.BroadcastNotificationService;
+import semsem.notificationservice.service.NotificationPushService;
 import semsem.notificationservice.service.NotificationService;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class NotificationServiceImpl implements NotificationService {
 
+    // both sources are read with size + 1 rows, so the slice size bounds the work of a request
+    private static final int MAX_SLICE_SIZE = 100;
+    // offset pages merge the first (offset + size) rows of both sources in memory; deeper pages go through the slice listing
+    private static final int MAX_PAGE_WINDOW = 1000;
+
     private final NotificationRepository notificationRepository;
+    private final NotificationBulkWriter notificationBulkWriter;
+    private final BroadcastNotificationService broadcastNotificationService;
+    private final MainServiceClient mainServiceClient;
+    private final UnreadCounterRepository unreadCounterRepository;
+    private final NotificationPushService notificationPushService;
+
+    @Value("${notifications.fanout.batch-size:500}")
+    private int batchSize;
 
     @Override
     @Transactional
     public Notification createNotification(NotificationEvent event) {
         log.info("Creating notification for receiver: {}, type: {}", event.getReceiverId(), event.getType());
         Notification notification = NotificationMapper.toEntity(event);
-        return notificationRepository.save(notification);
+        Notification saved = notificationRepository.save(notification);
+        adjustUnreadAfterCommit(List.of(saved.getReceiverId()), 1);
+        pushAfterCommit(List.of(NotificationMapper.toResponse(saved)));
+        return saved;
     }
 
     @Override
@@ -40,49 +76,117 @@ public class NotificationServiceImpl implements NotificationService {
         log.info("Creating notification for receiver: {}, type: {}, reference: {}:{}",
                 event.getReceiverId(), event.getType(), referenceType, referenceId);
         Notification notification = NotificationMapper.toEntity(event, referenceId, referenceType);
-        return notificationRepository.save(notification);
+        Notification saved = notificationRepository.save(notification);
+        adjustUnreadAfterCommit(List.of(saved.getReceiverId()), 1);
+        pushAfterCommit(List.of(NotificationMapper.toResponse(saved)));
+        return saved;
+    }
+
+    /**
+     * Rows are built and inserted a chunk at a time, so memory stays bounded by the batch size
+     * no matter how many receivers there are.
+     */
+    @Override
+    @Transactional
+    public int createNotifications(NotificationEvent event, List<Long> receiverIds, Long referenceId, String referenceType) {
+        log.info("Creating {} notifications of type: {}, reference: {}:{}",
+                receiverIds.size(), event.getType(), referenceType, referenceId);
+
+        int created = 0;
+        List<NotificationResponse> pushed = new ArrayList<>(receiverIds.size());
+        List<Notification> chunk = new ArrayList<>(Math.min(batchSize, receiverIds.size()));
+        for (Long receiverId : receiverIds) {
+            Notification notification = NotificationMapper.toEntity(event, referenceId, referenceType);
+            notification.setReceiverId(receiverId);
+            chunk.add(notification);
+            if (chunk.size() == batchSize) {
+                created += insertAndCollect(chunk, pushed);
+                chunk = new ArrayList<>(batchSize);
+            }
+        }
+        created += insertAndCollect(chunk, pushed);
+        adjustUnreadAfterCommit(receiverIds, 1);
+        pushAfterCommit(pushed);
+        return created;
     }
 
+    /**
+     * Personal notifications merged with the broadcasts of the user's friends, newest first.
+     */
     @Override
     @Transactional(readOnly = true)
     public NotificationPageResponse getUserNotifications(Long userId, Pageable pageable) {
         log.debug("Fetching notifications for user: {}", userId);
-        Page<Notification> notificationPage = notificationRepository.findByReceiverIdOrderByCreatedAtDesc(userId, pageable);
-        log.debug("notification Page : {}",notificationPage);
-        Long unreadCount = notificationRepository.countByReceiverIdAndIsReadFalse(userId);
+        List<Long> friendIds = friendIdsOf(userId);
+        int window = mergeWindow(pageable);
 
-        List<NotificationResponse> notifications = notificationPage.getContent()
-                .stream()
-                .map(NotificationMapper::toResponse)
-                .collect(Collectors.toList());
+        Page<Notification> personal = notificationRepository.findByReceiverIdOrderByCreatedAtDesc(userId, PageRequest.of(0, window));
+        List<NotificationResponse> broadcasts = broadcastNotificationService.getRecentBroadcasts(userId, friendIds, window, false);
+        long totalElements = personal.getTotalElements() + broadcastNotificationService.countBroadcasts(friendIds);
+        long unreadCount = unreadCount(userId, () -> friendIds);
 
-        return NotificationPageResponse.builder()
-                .notifications(notifications)
-                .currentPage(notificationPage.getNumber())
-                .totalPages(notificationPage.getTotalPages())
-                .totalElements(notificationPage.getTotalElements())
-                .unreadCount(unreadCount)
-                .build();
+        return toPageResponse(merge(personal.getContent(), broadcasts, pageable), pageable, totalElements, unreadCount);
     }
 
     @Override
     @Transactional(readOnly = true)
     public NotificationPageResponse getUnreadNotifications(Long userId, Pageable pageable) {
         log.debug("Fetching unread notifications for user: {}", userId);
-        Page<Notification> notificationPage = notificationRepository.findByReceiverIdAndIsReadFalseOrderByCreatedAtDesc(userId, pageable);
-        Long unreadCount = notificationRepository.countByReceiverIdAndIsReadFalse(userId);
+        List<Long> friendIds = friendIdsOf(userId);
+        int window = mergeWindow(pageable);
+
+        Page<Notification> personal = notificationRepository.findByReceiverIdAndIsReadFalseOrderByCreatedAtDesc(userId, PageRequest.of(0, window));
+        List<NotificationResponse> broadcasts = broadcastNotificationService.getRecentBroadcasts(userId, friendIds, window, true);
+        long unreadCount = unreadCount(userId, () -> friendIds);
+
+        return toPageResponse(merge(personal.getContent(), broadcasts, pageable), pageable, unreadCount, unreadCount);
+    }
 
-        List<NotificationResponse> notifications = notificationPage.getContent()
-                .stream()
-                .map(NotificationMapper::toResponse)
+    /**
+     * Keyset listing: both sources are read from the cursor position with one extra row each, merged by
+     * (created_at, id) and cut to the slice, so the cost depends on the slice size rather than its depth.
+     * Ids come from one sequence for both tables, so the id is a valid tie breaker across sources.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public NotificationSliceResponse getNotificationSlice(Long userId, String cursor, int requestedSize, boolean unreadOnly) {
+        if (requestedSize < 1) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Slice size must be at least 1");
+        }
+        int size = Math.min(requestedSize, MAX_SLICE_SIZE);
+        log.debug("Fetching notification slice for user: {}, unreadOnly: {}", userId, unreadOnly);
+        NotificationCursor position = cursor != null && !cursor.isBlank() ? NotificationCursor.decode(cursor) : null;
+        List<Long> friendIds = friendIdsOf(userId);
+        Limit fetch = Limit.of(size + 1);
+
+        List<NotificationSummary> personal;
+        if (position == null) {
+            personal = unreadOnly
+                    ? notificationRepository.findUnreadSummaries(userId, fetch)
+                    : notificationRepository.findSummaries(userId, fetch);
+        } else {
+            personal = unreadOnly
+                    ? notificationRepository.findUnreadSummariesBefore(userId, position.getCreatedAt(), position.getId(), fetch)
+                    : notificationRepository.findSummariesBefore(userId, position.getCreatedAt(), position.getId(), fetch);
+        }
+        List<NotificationResponse> broadcasts = broadcastNotificationService.getBroadcastsAfter(userId, friendIds, position, size + 1, unreadOnly);
+
+        List<NotificationResponse> merged = Stream.concat(
+                        personal.stream().map(summary -> NotificationMapper.toResponse(summary, userId)),
+                        broadcasts.stream())
+                .sorted(Comparator.comparing(NotificationResponse::getCreatedAt)
+                        .thenComparing(NotificationResponse::getId)
+                        .reversed())
+                .limit(size + 1)
                 .collect(Collectors.toList());
 
-        return NotificationPageResponse.builder()
-                .notifications(notifications)
-                .currentPage(notificationPage.getNumber())
-                .totalPages(notificationPage.getTotalPages())
-                .totalElements(notificationPage.getTotalElements())
-                .unreadCount(unreadCount)
+        boolean hasNext = merged.size() > size;
+        List<NotificationResponse> slice = hasNext ? merged.subList(0, size) : merged;
+        return NotificationSliceResponse.builder()
+                .notifications(slice)
+                .nextCursor(hasNext ? NotificationCursor.after(slice.get(slice.size() - 1)).encode() : null)
+                .hasNext(hasNext)
+                .unreadCount(unreadCount(userId, () -> friendIds))
                 .build();
     }
 
@@ -90,6 +194,16 @@ public class NotificationServiceImpl implements NotificationService {
     @Transactional(readOnly = true)
     public Page<NotificationResponse> getNotificationsByType(Long userId, NotificationType type, Pageable pageable) {
         log.debug("Fetching notifications by type: {} for user: {}", type, userId);
+        if (broadcastNotificationService.isFanOutOnRead(type)) {
+            // rows written before the type switched to fan-out-on-read are still personal, so merge both sources
+            List<Long> friendIds = friendIdsOf(userId);
+            int window = mergeWindow(pageable);
+            Page<Notification> personal = notificationRepository.findByReceiverIdAndTypeOrderByCreatedAtDesc(
+                    userId, type, PageRequest.of(0, window));
+            List<NotificationResponse> broadcasts = broadcastNotificationService.getRecentBroadcastsOfType(userId, friendIds, type, window);
+            long totalElements = personal.getTotalElements() + broadcastNotificationService.countBroadcastsOfType(friendIds, type);
+            return new PageImpl<>(merge(personal.getContent(), broadcasts, pageable), pageable, totalElements);
+        }
         return notificationRepository.findByReceiverIdAndTypeOrderByCreatedAtDesc(userId, type, pageable)
                 .map(NotificationMapper::toResponse);
     }
@@ -99,8 +213,14 @@ public class NotificationServiceImpl implements NotificationService {
     public void markAsRead(Long notificationId, Long userId) {
         log.info("Marking notification {} as read for user: {}", notificationId, userId);
         int updated = notificationRepository.markAsRead(notificationId, userId, LocalDateTime.now());
-        if (updated == 0) {
-            log.warn("Notification {} not found or does not belong to user {}", notificationId, userId);
+        if (updated > 0) {
+            adjustUnreadAfterCommit(List.of(userId), -1);
+            afterCommit(() -> notificationPushService.pushUnreadDelta(userId, -1));
+        } else if (broadcastNotificationService.markAsRead(notificationId, userId, () -> friendIdsOf(userId))) {
+            afterCommit(() -> unreadCounterRepository.evictBroadcast(userId));
+            afterCommit(() -> notificationPushService.pushUnreadDelta(userId, -1));
+        } else {
+            log.debug("Notification {} not found, already read or does not belong to user {}", notificationId, userId);
         }
     }
 
@@ -108,13 +228,24 @@ public class NotificationServiceImpl implements NotificationService {
     @Transactional
     public int markAllAsRead(Long userId) {
         log.info("Marking all notifications as read for user: {}", userId);
-        return notificationRepository.markAllAsRead(userId, LocalDateTime.now());
+        broadcastNotificationService.markAllAsRead(userId);
+        int updated = notificationRepository.markAllAsRead(userId, LocalDateTime.now());
+        afterCommit(() -> {
+            unreadCounterRepository.set(userId, 0);
+            unreadCounterRepository.evictBroadcast(userId);
+        });
+        afterCommit(() -> notificationPushService.pushUnreadReset(userId));
+        return updated;
     }
 
+    /**
+     * Served from the cached counters; the friend list is only fetched when the broadcast count has expired.
+     * Not transactional, so a cache hit takes no database connection; on a miss each count runs in its
+     * repository's own read-only transaction.
+     */
     @Override
-    @Transactional(readOnly = true)
     public Long getUnreadCount(Long userId) {
-        return notificationRepository.countByReceiverIdAndIsReadFalse(userId);
+        return unreadCount(userId, () -> friendIdsOf(userId));
     }
 
     @Override
@@ -124,6 +255,10 @@ public class NotificationServiceImpl implements NotificationService {
         notificationRepository.findById(notificationId).ifPresent(notification -> {
             if (notification.getReceiverId().equals(userId)) {
                 notificationRepository.delete(notification);
+                if (!notification.getIsRead()) {
+                    adjustUnreadAfterCommit(List.of(userId), -1);
+                    afterCommit(() -> notificationPushService.pushUnreadDelta(userId, -1));
+                }
             } else {
                 log.warn("User {} attempted to delete notification {} that belongs to user {}",
                         userId, notificationId, notification.getReceiverId());
@@ -136,6 +271,8 @@ public class NotificationServiceImpl implements NotificationService {
     public void deleteAllNotifications(Long userId) {
         log.info("Deleting all notifications for user: {}", userId);
         notificationRepository.deleteByReceiverId(userId);
+        afterCommit(() -> unreadCounterRepository.set(userId, 0));
+        afterCommit(() -> notificationPushService.pushUnreadReset(userId));
     }
 
     @Override
@@ -145,4 +282,125 @@ public class NotificationServiceImpl implements NotificationService {
         log.info("Cleaning up read notifications older than {}", cutoffDate);
         return notificationRepository.deleteOldReadNotifications(cutoffDate);
     }
-}
\ No newline at end of file
+
+    /**
+     * Personal plus broadcast unread count, each recounted from the database only when its cached value is missing.
+     * Counting happens inside the caller's transaction, so a concurrent write may be counted and then incremented
+     * again; such drift is bounded by the counter TTL and corrected by the reconciliation job.
+     */
+    private long unreadCount(Long userId, Supplier<List<Long>> friendIds) {
+        Long[] cached = cachedUnreadCounts(userId);
+        long personal;
+        if (cached[0] != null) {
+            personal = cached[0];
+        } else {
+            personal = notificationRepository.countByReceiverIdAndIsReadFalse(userId);
+            runQuietly(() -> unreadCounterRepository.set(userId, personal));
+        }
+        long broadcast;
+        if (cached[1] != null) {
+            broadcast = cached[1];
+        } else {
+            broadcast = broadcastNotificationService.countUnreadBroadcasts(userId, friendIds.get());
+            runQuietly(() -> unreadCounterRepository.setBroadcast(userId, broadcast));
+        }
+        return personal + broadcast;
+    }
+
+    private Long[] cachedUnreadCounts(Long userId) {
+        try {
+            return unreadCounterRepository.get(userId);
+        } catch (Exception e) {
+            log.error("Error reading unread counters for user {}: {}", userId, e.getMessage());
+            return new Long[2];
+        }
+    }
+
+    /**
+     * Counters only follow committed rows; cached values missing at that point are left to the next read
+     */
+    private void adjustUnreadAfterCommit(List<Long> userIds, long delta) {
+        afterCommit(() -> unreadCounterRepository.addIfPresent(userIds, delta));
+    }
+
+    /**
+     * New notifications are pushed with an unread delta of one each, so creation needs no separate delta
+     */
+    private void pushAfterCommit(List<NotificationResponse> notifications) {
+        afterCommit(() -> notifications.forEach(notificationPushService::pushNotification));
+    }
+
+    private int insertAndCollect(List<Notification> chunk, List<NotificationResponse> pushed) {
+        int inserted = notificationBulkWriter.insertAll(chunk);
+        chunk.forEach(notification -> pushed.add(NotificationMapper.toResponse(notification)));
+        return inserted;
+    }
+
+    /**
+     * Redis counters and pushes must never see rows that end up rolled back
+     */
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            runQuietly(action);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                runQuietly(action);
+            }
+        });
+    }
+
+    private void runQuietly(Runnable action) {
+        try {
+            action.run();
+        } catch (Exception e) {
+            log.error("Error updating unread counters or pushes: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Friends whose broadcasts the user sees; personal notifications are still served if main-service is down
+     */
+    private List<Long> friendIdsOf(Long userId) {
+        try {
+            List<Long> friendIds = mainServiceClient.getFriendIds(userId);
+            return friendIds != null ? friendIds : List.of();
+        } catch (Exception e) {
+            log.error("Error fetching friend ids for user {}: {}", userId, e.getMessage());
+            return List.of();
+        }
+    }
+
+    private int mergeWindow(Pageable pageable) {
+        long window = pageable.getOffset() + pageable.getPageSize();
+        if (window > MAX_PAGE_WINDOW) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Pages deeper than " + MAX_PAGE_WINDOW + " notifications are only available through /api/notifications/scroll");
+        }
+        return (int) window;
+    }
+
+    /**
+     * Merge the first (offset + size) rows of both sources by creation time and cut out the requested page
+     */
+    private List<NotificationResponse> merge(List<Notification> personal, List<NotificationResponse> broadcasts, Pageable pageable) {
+        return Stream.concat(personal.stream().map(NotificationMapper::toResponse), broadcasts.stream())
+                .sorted(Comparator.comparing(NotificationResponse::getCreatedAt).reversed())
+                .skip(pageable.getOffset())
+                .limit(pageable.getPageSize())
+                .collect(Collectors.toList());
+    }
+
+    private NotificationPageResponse toPageResponse(List<NotificationResponse> notifications, Pageable pageable,
+                                                    long totalElements, long unreadCount) {
+        return NotificationPageResponse.builder()
+                .notifications(notifications)
+                .currentPage(pageable.getPageNumber())
+                .totalPages((int) ((totalElements + pageable.getPageSize() - 1) / pageable.getPageSize()))
+                .totalElements(totalElements)
+                .unreadCount(unreadCount)
+                .build();
+    }
+}
@@ -0,0 +1,14 @@
+-- Adds ARGV[1] to every unread counter in KEYS that is currently cached, never going below zero.
+-- Missing counters are left alone: they are recounted from the database on the next read.
+local delta = tonumber(ARGV[1])
+for _, key in ipairs(KEYS) do
+    local current = redis.call('GET', key)
+    if current then
+        local updated = tonumber(current) + delta
+        if updated < 0 then
+            updated = 0
+        end
+        redis.call('SET', key, updated, 'KEEPTTL')
+    end
+end
+return #KEYS
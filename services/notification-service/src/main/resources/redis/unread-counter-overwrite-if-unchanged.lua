@@ -0,0 +1,11 @@
+-- Overwrites every unread counter in KEYS with its recount ARGV[2i] if it still holds ARGV[2i-1],
+-- the value sampled before the recount, keeping its TTL. Counters changed by a concurrent write since
+-- sampling (or expired) are left alone: the next reconciliation run picks them up again.
+local updated = 0
+for i, key in ipairs(KEYS) do
+    if redis.call('GET', key) == ARGV[2 * i - 1] then
+        redis.call('SET', key, ARGV[2 * i], 'KEEPTTL')
+        updated = updated + 1
+    end
+end
+return updated